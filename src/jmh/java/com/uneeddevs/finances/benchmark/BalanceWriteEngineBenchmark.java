@@ -0,0 +1,80 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.service.engine.BalanceWriteEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of movements on a single hot account, written one transaction per movement ({@code direct}) or through
+ * the {@link BalanceWriteEngine} ({@code coalesced}). The database is replaced by a row lock held for
+ * {@code commitMicros} per transaction, which is what serializes the balance updates of one account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class BalanceWriteEngineBenchmark {
+
+    @Param({"200"})
+    private long commitMicros;
+
+    private final Object row = new Object();
+    private BigDecimal balance = BigDecimal.ZERO;
+    private BankAccount bankAccount;
+    private BalanceWriteEngine balanceWriteEngine;
+
+    @Setup
+    public void setup() throws Exception {
+        bankAccount = BankAccountMock.mock();
+        balanceWriteEngine = new BalanceWriteEngine(4, 100, 10000, 1000, this::write);
+    }
+
+    @TearDown
+    public void tearDown() {
+        balanceWriteEngine.shutdown();
+    }
+
+    @Benchmark
+    public Movement direct() {
+        final Movement movement = new Movement(MovementType.INPUT, BigDecimal.ONE, bankAccount);
+        write(bankAccount.getId(), List.of(movement));
+        return movement;
+    }
+
+    @Benchmark
+    public Movement coalesced() {
+        return balanceWriteEngine.submit(new Movement(MovementType.INPUT, BigDecimal.ONE, bankAccount)).join();
+    }
+
+    private void write(UUID bankAccountId, List<Movement> movements) {
+        synchronized (row) {
+            for (Movement movement : movements)
+                balance = balance.add(movement.getValue());
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(commitMicros));
+        }
+    }
+}
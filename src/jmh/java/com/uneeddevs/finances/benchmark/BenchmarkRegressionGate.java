@@ -0,0 +1,79 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result against a baseline and exits with status 1 when any benchmark is slower
+ * than the allowed tolerance. When the baseline does not exist yet the result is copied there and the gate passes,
+ * so the first gated run on a machine records the numbers later runs are held to.
+ * Usage: {@code BenchmarkRegressionGate <baseline.json> <result.json> <tolerance %>}.
+ */
+public class BenchmarkRegressionGate {
+
+    private BenchmarkRegressionGate() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3)
+            throw new IllegalArgumentException("Usage: BenchmarkRegressionGate <baseline.json> <result.json> <tolerance %>");
+        final File baselineFile = new File(args[0]);
+        final File resultFile = new File(args[1]);
+        if (!baselineFile.exists()) {
+            Files.copy(resultFile.toPath(), baselineFile.toPath());
+            System.out.printf("No baseline found, recorded %s as %s%n", resultFile, baselineFile);
+            return;
+        }
+        final Map<String, JsonNode> baseline = read(baselineFile);
+        final Map<String, JsonNode> result = read(resultFile);
+        final double tolerance = Double.parseDouble(args[2]) / 100;
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            final JsonNode expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            final double change = change(expected, entry.getValue());
+            final boolean regression = change > tolerance;
+            if (regression)
+                regressions++;
+            System.out.printf("%-10s %s %+.1f%%%n", regression ? "REGRESSION" : "OK", entry.getKey(), change * 100);
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed more than %s%%%n", regressions, args[2]);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        final Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file))
+            results.put(key(node), node);
+        return results;
+    }
+
+    private static String key(JsonNode node) {
+        final Map<String, String> params = new LinkedHashMap<>();
+        node.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        return params.isEmpty() ? node.get("benchmark").asText() : node.get("benchmark").asText() + params;
+    }
+
+    /**
+     * Relative change where a positive value is always worse: higher time for time based modes and
+     * lower throughput for {@code thrpt}.
+     */
+    private static double change(JsonNode baseline, JsonNode result) {
+        final double expected = baseline.path("primaryMetric").path("score").asDouble();
+        final double actual = result.path("primaryMetric").path("score").asDouble();
+        final double change = (actual - expected) / expected;
+        return "thrpt".equals(result.path("mode").asText()) ? -change : change;
+    }
+
+}
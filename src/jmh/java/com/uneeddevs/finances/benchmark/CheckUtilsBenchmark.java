@@ -0,0 +1,60 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.uneeddevs.finances.util.CheckUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckUtilsBenchmark {
+
+    private Object value = new Object();
+    private String text = "Account 1";
+    private BigDecimal amount = new BigDecimal("1234.56");
+    private Integer number = 1;
+
+    @Benchmark
+    public Object requireNonNull() {
+        return CheckUtils.requireNonNull(value, "value is mandatory");
+    }
+
+    @Benchmark
+    public String requireNotBlank() {
+        return CheckUtils.requireNotBlank(text, "text is mandatory");
+    }
+
+    @Benchmark
+    public BigDecimal requirePositiveBigDecimal() {
+        return CheckUtils.requirePositive(amount, "value has to be a positive value");
+    }
+
+    @Benchmark
+    public Integer requirePositiveInteger() {
+        return CheckUtils.requirePositive(number, "value has to be a positive value");
+    }
+
+    @Benchmark
+    public boolean requirePositiveRejected() {
+        try {
+            CheckUtils.requirePositive(amount.negate(), "value has to be a positive value");
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+}
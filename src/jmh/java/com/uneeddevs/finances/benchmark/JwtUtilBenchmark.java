@@ -0,0 +1,109 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.security.JwtToken;
+import com.uneeddevs.finances.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and the authorization path of one request: the previous implementation, which built
+ * a new verifier per call and verified the token twice, against {@link JwtUtil#verify(String)} with and
+ * without a verified token cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "BENCHMARK-SECRET";
+    private static final Long EXPIRATION = 100000000L;
+
+    private LegacyJwtUtil legacyJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        legacyJwtUtil = new LegacyJwtUtil(SECRET);
+        uncachedJwtUtil = new JwtUtil(EXPIRATION, SECRET, 0L);
+        cachedJwtUtil = new JwtUtil(EXPIRATION, SECRET, 1000L);
+        user = UserMock.mock(true);
+        token = cachedJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return uncachedJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String legacyValidateAndGetUsername() {
+        return legacyJwtUtil.isValidToken(token) ? legacyJwtUtil.getUsername(token) : null;
+    }
+
+    @Benchmark
+    public Optional<JwtToken> verifyUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtToken> verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    static class LegacyJwtUtil {
+
+        private final String secret;
+
+        LegacyJwtUtil(String secret) {
+            this.secret = secret;
+        }
+
+        boolean isValidToken(String token) {
+            DecodedJWT decodedJWT = getDecodedJWT(token);
+            return Objects.nonNull(decodedJWT)
+                    && Objects.nonNull(decodedJWT.getSubject())
+                    && Objects.nonNull(decodedJWT.getExpiresAt())
+                    && System.currentTimeMillis() < decodedJWT.getExpiresAt().getTime();
+        }
+
+        String getUsername(String token) {
+            DecodedJWT decodedJWT = getDecodedJWT(token);
+            return Objects.isNull(decodedJWT) ? null : decodedJWT.getSubject();
+        }
+
+        private DecodedJWT getDecodedJWT(String token) {
+            try {
+                return JWT.require(Algorithm.HMAC512(secret))
+                        .withIssuer("com.uneeddevs")
+                        .build()
+                        .verify(token);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+}
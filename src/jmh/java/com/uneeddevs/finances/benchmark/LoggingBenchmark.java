@@ -0,0 +1,113 @@
+package com.uneeddevs.finances.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.uneeddevs.finances.diagnostics.LogSamplingTurboFilter;
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the service request-trace logging at INFO: the previous eager {@code String.format} and
+ * {@code toString()} on a synchronous appender against parameterized messages on the synchronous appender,
+ * on the bounded never-blocking async appender and on the async appender with one in ten messages sampled.
+ * Output goes to a discarding stream so the appender cost is measured, not the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String LOGGER_NAME = "com.uneeddevs.finances.service.impl.BenchmarkService";
+
+    @Param({"sync", "async", "sampled"})
+    public String pipeline;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private User user;
+    private UUID id;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        user = UserMock.mock(true);
+        id = user.getId();
+        loggerContext = new LoggerContext();
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5p %t %logger{39} : %m%n");
+        encoder.start();
+        final OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(loggerContext);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+        logger = loggerContext.getLogger(LOGGER_NAME);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        if("sync".equals(pipeline)) {
+            logger.addAppender(console);
+            return;
+        }
+        final AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.addAppender(console);
+        async.start();
+        logger.addAppender(async);
+        if("sampled".equals(pipeline)) {
+            final LogSamplingTurboFilter turboFilter = new LogSamplingTurboFilter();
+            turboFilter.setContext(loggerContext);
+            turboFilter.addLoggerPrefix("com.uneeddevs.finances.service.impl");
+            turboFilter.setRate(10);
+            turboFilter.start();
+            loggerContext.addTurboFilter(turboFilter);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void eagerFormat() {
+        final String userString = user.toString();
+        logger.info("Perform persist user: {}", userString);
+        logger.info(String.format("Searching user by id %s", id));
+    }
+
+    @Benchmark
+    public void parameterized() {
+        logger.info("Perform persist user: {}", user);
+        logger.info("Searching user by id {}", id);
+    }
+}
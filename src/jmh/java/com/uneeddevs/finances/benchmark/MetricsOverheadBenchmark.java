@@ -0,0 +1,82 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.uneeddevs.finances.security.JwtUtil;
+import com.uneeddevs.finances.util.LatencyRecorder;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost added to a request by the instrumentation: the {@link LatencyRecorder} behind the JWT and BCrypt
+ * timers, a pre-registered Prometheus timer as used by the repository invocation timers, and the tagged
+ * timer lookup done per request for {@code http.server.requests}. Runs contended to match full load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final Tags REQUEST_TAGS = Tags.of("exception", "None", "method", "GET", "outcome", "SUCCESS",
+            "status", "200", "uri", "/movements/{uuid}");
+
+    private LatencyRecorder latencyRecorder;
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+
+    @Setup
+    public void setup() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        latencyRecorder = new LatencyRecorder();
+        latencyRecorder.register(registry, "benchmark.latency", "Benchmark latency", Tags.empty());
+        timer = Timer.builder("benchmark.timer").tags(REQUEST_TAGS).register(registry);
+        new JwtUtil(100000000L, "BENCHMARK-SECRET", 0L).bindTo(registry);
+    }
+
+    @Benchmark
+    public long baseline() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void latencyRecorder() {
+        latencyRecorder.record(System.nanoTime());
+    }
+
+    @Benchmark
+    public void registeredTimer() {
+        timer.record(System.nanoTime() - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void requestTimer() {
+        Timer.builder("http.server.requests")
+                .tags(REQUEST_TAGS)
+                .register(registry)
+                .record(System.nanoTime() - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String scrape() {
+        return registry.scrape();
+    }
+}
@@ -0,0 +1,82 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uneeddevs.finances.controller.serialization.MovementSerialization;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.model.Movement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a movement search page of {@code size} movements as JSON, CBOR and Smile, with mappers configured like the
+ * ones Spring Boot builds for the message converters. The payload size of each format is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Page<MovementResponseDTO> page;
+
+    @Setup
+    public void setup() throws Exception {
+        final Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        objectMapper = builder
+                .serializerByType(Movement.class, new MovementSerialization())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        final Random random = new Random(42);
+        final LocalDateTime start = LocalDateTime.of(2021, 10, 6, 20, 43, 3);
+        final List<MovementResponseDTO> movements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            movements.add(new MovementResponseDTO(new UUID(random.nextLong(), random.nextLong()),
+                    i % 3 == 0 ? MovementType.OUTPUT : MovementType.INPUT,
+                    BigDecimal.valueOf(random.nextInt(1_000_000), 2),
+                    start.plusSeconds(i * 37L)));
+        page = new PageImpl<>(movements, PageRequest.of(0, size), size * 10L);
+        System.out.printf("%n%s payload: %d bytes%n", format, objectMapper.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
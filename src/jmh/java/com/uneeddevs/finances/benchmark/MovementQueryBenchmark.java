@@ -0,0 +1,204 @@
+package com.uneeddevs.finances.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the movement and bank account lookups against an H2 database in PostgreSQL mode, seeded with
+ * {@code users * accountsPerUser * movementsPerAccount} movements, with and without the indexes of
+ * {@code V2__movement_indexes.sql}. The query plans are printed during setup.
+ * <p>
+ * Foreign keys are left out of the V1 tables because H2 indexes them implicitly while PostgreSQL
+ * does not, so without them the baseline matches the production schema before V2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovementQueryBenchmark {
+
+    private static final String PERIOD_QUERY = "select id, movement_date, movement_type, value, bank_account_id from tb_movement " +
+            "where movement_date between ? and ? and bank_account_id = ?";
+    private static final String KEYSET_QUERY = "select id, movement_date, movement_type, value, bank_account_id from tb_movement " +
+            "where bank_account_id = ? and movement_date between ? and ? order by movement_date, id limit 50";
+    private static final String USER_ACCOUNTS_QUERY = "select id, balance, name, user_id from tb_bank_account where user_id = ?";
+    private static final Pattern FOREIGN_KEY = Pattern.compile(",\\s*CONSTRAINT \\w+ FOREIGN KEY \\([^)]*\\) REFERENCES [^(]+\\([^)]*\\)");
+    private static final LocalDateTime FIRST_MOVEMENT = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    @Param({"100"})
+    private int users;
+
+    @Param({"5"})
+    private int accountsPerUser;
+
+    @Param({"200"})
+    private int movementsPerAccount;
+
+    private Connection connection;
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:movement-query-" + indexed + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements("/db/migration/V1__schema.sql"))
+                if (sql.toLowerCase().startsWith("create table"))
+                    statement.execute(FOREIGN_KEY.matcher(sql).replaceAll(""));
+        }
+        seed();
+        if (indexed)
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements("/db/migration/V2__movement_indexes.sql"))
+                    statement.execute(sql);
+                statement.execute("analyze");
+            }
+        final Timestamp from = Timestamp.valueOf(FIRST_MOVEMENT);
+        final Timestamp to = Timestamp.valueOf(FIRST_MOVEMENT.plusDays(30));
+        printPlan(PERIOD_QUERY, from, to, accountIds.get(0));
+        printPlan(KEYSET_QUERY, accountIds.get(0), from, to);
+        printPlan(USER_ACCOUNTS_QUERY, userIds.get(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int findByPeriodAndBankAccount() throws SQLException {
+        final LocalDateTime start = FIRST_MOVEMENT.plusDays(ThreadLocalRandom.current().nextInt(movementsPerAccount / 2));
+        try (PreparedStatement statement = connection.prepareStatement(PERIOD_QUERY)) {
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(start.plusDays(30)));
+            statement.setObject(3, randomAccount());
+            return count(statement);
+        }
+    }
+
+    @Benchmark
+    public int findKeysetPage() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(KEYSET_QUERY)) {
+            statement.setObject(1, randomAccount());
+            statement.setTimestamp(2, Timestamp.valueOf(FIRST_MOVEMENT));
+            statement.setTimestamp(3, Timestamp.valueOf(FIRST_MOVEMENT.plusYears(10)));
+            return count(statement);
+        }
+    }
+
+    @Benchmark
+    public int findByUser() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(USER_ACCOUNTS_QUERY)) {
+            statement.setObject(1, userIds.get(ThreadLocalRandom.current().nextInt(userIds.size())));
+            return count(statement);
+        }
+    }
+
+    private void seed() throws SQLException {
+        final Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement user = connection.prepareStatement(
+                "insert into tb_user (id, email, \"name\", \"password\") values (?, ?, 'name', 'password')");
+             PreparedStatement account = connection.prepareStatement(
+                     "insert into tb_bank_account (id, balance, \"name\", user_id) values (?, 0, 'account', ?)");
+             PreparedStatement movement = connection.prepareStatement(
+                     "insert into tb_movement (id, movement_date, movement_type, value, bank_account_id) values (?, ?, ?, 10, ?)")) {
+            for (int u = 0; u < users; u++) {
+                final UUID userId = new UUID(random.nextLong(), random.nextLong());
+                userIds.add(userId);
+                user.setObject(1, userId);
+                user.setString(2, "user" + u + "@mail.com");
+                user.executeUpdate();
+                for (int a = 0; a < accountsPerUser; a++) {
+                    final UUID accountId = new UUID(random.nextLong(), random.nextLong());
+                    accountIds.add(accountId);
+                    account.setObject(1, accountId);
+                    account.setObject(2, userId);
+                    account.executeUpdate();
+                    for (int m = 0; m < movementsPerAccount; m++) {
+                        movement.setObject(1, new UUID(random.nextLong(), random.nextLong()));
+                        movement.setTimestamp(2, Timestamp.valueOf(FIRST_MOVEMENT.plusDays(m).plusMinutes(random.nextInt(1440))));
+                        movement.setInt(3, 1 + random.nextInt(2));
+                        movement.setObject(4, accountId);
+                        movement.addBatch();
+                    }
+                    movement.executeBatch();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private UUID randomAccount() {
+        return accountIds.get(ThreadLocalRandom.current().nextInt(accountIds.size()));
+    }
+
+    private int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next())
+                rows++;
+        }
+        return rows;
+    }
+
+    private void printPlan(String query, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + query)) {
+            for (int i = 0; i < parameters.length; i++)
+                statement.setObject(i + 1, parameters[i]);
+            try (ResultSet plan = statement.executeQuery()) {
+                while (plan.next())
+                    System.out.printf("indexed=%s plan:%n%s%n", indexed, plan.getString(1));
+            }
+        }
+    }
+
+    private static List<String> statements(String resource) throws IOException {
+        try (InputStream inputStream = MovementQueryBenchmark.class.getResourceAsStream(resource)) {
+            if (inputStream == null)
+                throw new IOException("Missing " + resource);
+            final List<String> statements = new ArrayList<>();
+            for (String sql : new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).split(";"))
+                if (!sql.isBlank())
+                    statements.add(sql.trim());
+            return statements;
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.uneeddevs.finances.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.service.impl.MovementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.NoResultException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the service logic of {@link MovementServiceImpl#save(Movement)} with in-memory stand-ins
+ * for the repositories, the bank account service and the daily summary service, so no database or Spring context is involved.
+ * Application logging is raised to WARN to keep console output out of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementServiceBenchmark {
+
+    private static final Field MOVEMENT_DATE;
+
+    static {
+        try {
+            MOVEMENT_DATE = Movement.class.getDeclaredField("movementDate");
+            MOVEMENT_DATE.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Map<UUID, Movement> movements = new ConcurrentHashMap<>();
+    private final Map<UUID, BankAccount> bankAccounts = new ConcurrentHashMap<>();
+    private MovementService movementService;
+    private BankAccount bankAccount;
+
+    @Setup
+    public void setup() throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        bankAccount = BankAccountMock.mock();
+        bankAccount.addBalance(new BigDecimal("1000000000000"));
+        bankAccounts.put(bankAccount.getId(), bankAccount);
+        final MovementRepository movementRepository = movementRepository();
+        final BankAccountService bankAccountService = new InMemoryBankAccountService();
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        final OwnershipResolver ownershipResolver = new OwnershipResolver(bankAccountRepository(), movementRepository, 1000L);
+        movementService = new MovementServiceImpl(movementRepository, bankAccountService, ownershipResolver, transactionTemplate,
+                new MovementWriter(movementRepository, bankAccountService, new NoOpAccountSummaryService(), transactionTemplate,
+                        new SimpleMeterRegistry()),
+                Optional.empty());
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        movements.clear();
+    }
+
+    @Benchmark
+    public Movement saveInput() {
+        return movementService.save(new Movement(MovementType.INPUT, BigDecimal.TEN, bankAccount));
+    }
+
+    @Benchmark
+    public Movement saveOutput() {
+        return movementService.save(new Movement(MovementType.OUTPUT, BigDecimal.ONE, bankAccount));
+    }
+
+    private MovementRepository movementRepository() {
+        return (MovementRepository) Proxy.newProxyInstance(MovementRepository.class.getClassLoader(),
+                new Class<?>[]{MovementRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        MOVEMENT_DATE.set(args[0], LocalDateTime.now());
+                        movements.put(UUID.randomUUID(), (Movement) args[0]);
+                        yield args[0];
+                    }
+                    case "findById" -> Optional.ofNullable(movements.get((UUID) args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryMovementRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private BankAccountRepository bankAccountRepository() {
+        return (BankAccountRepository) Proxy.newProxyInstance(BankAccountRepository.class.getClassLoader(),
+                new Class<?>[]{BankAccountRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findUserIdById" -> Optional.ofNullable(bankAccounts.get((UUID) args[0])).map(BankAccount::getUserId);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryBankAccountRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private class InMemoryBankAccountService implements BankAccountService {
+
+        @Override
+        public List<BankAccountResponseDTO> findByUser(UUID userId) {
+            return bankAccounts.values()
+                    .stream()
+                    .filter(account -> account.getUserId().equals(userId))
+                    .map(BankAccount::toBankAccountResponseDTO)
+                    .toList();
+        }
+
+        @Override
+        public BankAccount save(BankAccount bankAccount) {
+            bankAccounts.put(bankAccount.getId(), bankAccount);
+            return bankAccount;
+        }
+
+        @Override
+        public BankAccount update(BankAccount bankAccount) {
+            return save(bankAccount);
+        }
+
+        @Override
+        public BankAccount findById(UUID id) {
+            final BankAccount account = bankAccounts.get(id);
+            if (account == null)
+                throw new NoResultException(String.format("No bank account with id %s", id));
+            return account;
+        }
+
+        @Override
+        public long findVersion(UUID id) {
+            return findById(id).getVersion();
+        }
+
+        @Override
+        public synchronized void addBalance(UUID id, BigDecimal value) {
+            final BankAccount account = findById(id);
+            if (value.signum() < 0)
+                account.subtractBalance(value.negate());
+            else
+                account.addBalance(value);
+        }
+
+        @Override
+        public boolean deleteById(UUID id) {
+            return bankAccounts.remove(id) != null;
+        }
+    }
+
+
+    private static class NoOpAccountSummaryService implements AccountSummaryService {
+
+        @Override
+        public void apply(UUID bankAccountId, LocalDate date, BigDecimal inputTotal, BigDecimal outputTotal, long movementCount) {
+        }
+
+        @Override
+        public AccountSummaryDTO summarize(UUID bankAccountId, LocalDate start, LocalDate end) {
+            throw new UnsupportedOperationException("summarize");
+        }
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uneeddevs.finances.controller.serialization.BankAccountSerialization;
+import com.uneeddevs.finances.controller.serialization.MovementSerialization;
+import com.uneeddevs.finances.controller.serialization.UserSerialization;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.mocks.MovementMock;
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the entities through the {@code @JsonComponent} serializers registered on an
+ * {@link ObjectMapper} configured like the one Spring Boot builds for the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Movement movement;
+    private List<Movement> movements;
+    private BankAccount bankAccount;
+    private User user;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializerByType(Movement.class, new MovementSerialization())
+                .serializerByType(BankAccount.class, new BankAccountSerialization())
+                .serializerByType(User.class, new UserSerialization())
+                .build();
+        movement = MovementMock.mock(true);
+        movements = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            movements.add(MovementMock.mock(i % 2 == 0));
+        bankAccount = BankAccountMock.mock(true);
+        user = UserMock.mock(true, true);
+    }
+
+    @Benchmark
+    public byte[] movement() throws Exception {
+        return objectMapper.writeValueAsBytes(movement);
+    }
+
+    @Benchmark
+    public byte[] movementList() throws Exception {
+        return objectMapper.writeValueAsBytes(movements);
+    }
+
+    @Benchmark
+    public byte[] bankAccount() throws Exception {
+        return objectMapper.writeValueAsBytes(bankAccount);
+    }
+
+    @Benchmark
+    public byte[] user() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.uneeddevs.finances.benchmark;
+
+import com.uneeddevs.finances.enums.ProfileRole;
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.security.TokenPrincipal;
+import com.uneeddevs.finances.util.UserUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserUtilBenchmark {
+
+    @Param({"USER", "TOKEN"})
+    private String principal;
+
+    @Setup
+    public void setup() throws Exception {
+        final User user = UserMock.mock(true);
+        final UserDetails userDetails = "USER".equals(principal) ? user
+                : new TokenPrincipal(user.getId(), user.getEmail(), List.of("ROLE_ADMIN"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @Benchmark
+    public boolean hasGrantedAuthority() {
+        return UserUtil.hasAuthority(ProfileRole.ADMIN);
+    }
+
+    @Benchmark
+    public boolean hasMissingAuthority() {
+        return UserUtil.hasAuthority(ProfileRole.USER);
+    }
+
+}
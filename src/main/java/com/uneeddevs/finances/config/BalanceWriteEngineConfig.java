@@ -0,0 +1,23 @@
+package com.uneeddevs.finances.config;
+
+import com.uneeddevs.finances.service.engine.BalanceWriteEngine;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceWriteEngineConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnExpression("${movement.write-engine.shards:0} > 0")
+    public BalanceWriteEngine balanceWriteEngine(@Value("${movement.write-engine.shards}") int shards,
+                                                 @Value("${movement.write-engine.max-batch-size}") int maxBatchSize,
+                                                 @Value("${movement.write-engine.queue-capacity}") int queueCapacity,
+                                                 @Value("${movement.write-engine.offer-timeout}") long offerTimeout,
+                                                 MovementWriter movementWriter) {
+        return new BalanceWriteEngine(shards, maxBatchSize, queueCapacity, offerTimeout, movementWriter);
+    }
+
+}
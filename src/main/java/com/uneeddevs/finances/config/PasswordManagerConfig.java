@@ -1,15 +1,18 @@
 package com.uneeddevs.finances.config;
 
+import com.uneeddevs.finances.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Configuration
 public class PasswordManagerConfig {
 
-    @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(@Value("${password-encoder.strength}") int strength,
+                                                  @Value("${password-encoder.pool-size}") int poolSize,
+                                                  @Value("${password-encoder.queue-capacity}") int queueCapacity) {
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity);
     }
 
 }
@@ -1,33 +1,48 @@
 package com.uneeddevs.finances.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uneeddevs.finances.security.BoundedPasswordEncoder;
 import com.uneeddevs.finances.security.JwtAuthenticationFilter;
 import com.uneeddevs.finances.security.JwtAuthorizationFilter;
+import com.uneeddevs.finances.security.JwtLogoutHandler;
 import com.uneeddevs.finances.security.JwtUtil;
+import com.uneeddevs.finances.security.PrincipalCache;
+import com.uneeddevs.finances.security.TokenRevocationList;
 import com.uneeddevs.finances.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 
 @Configuration
 @EnableWebSecurity
+@EnableGlobalMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private static final String[] PUBLIC_MATCHERS_POST = {"/users", "/login"};
     private static final String[] PUBLIC_MATCHERS_GET = {"/swagger-ui/**", "/documentation/**", "/documentation-api"};
-    private static final String[] ADMIN_MATCHERS = {"/users/page"};
+    private static final String[] MANAGEMENT_MATCHERS_GET = {"/actuator/health", "/actuator/health/**", "/actuator/prometheus"};
+    private static final String[] ADMIN_MATCHERS = {"/users/page", "/users/keyset", "/cache/**"};
 
     private final ObjectMapper objectMapper;
     private final UserService userService;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.stateless-authorization:false}")
+    private boolean statelessAuthorization;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -41,14 +56,43 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .anyRequest().authenticated();
 
         http.addFilter(new JwtAuthenticationFilter(authenticationManager(), objectMapper, jwtUtil));
-        http.addFilter(new JwtAuthorizationFilter(authenticationManager(), jwtUtil, userService));
+        http.addFilter(new JwtAuthorizationFilter(authenticationManager(), jwtUtil, userService, principalCache,
+                tokenRevocationList, statelessAuthorization));
+
+        http.logout()
+                .addLogoutHandler(new JwtLogoutHandler(jwtUtil, tokenRevocationList))
+                .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler(HttpStatus.NO_CONTENT));
 
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     }
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userService).passwordEncoder(bCryptPasswordEncoder);
+        auth.userDetailsService(userService).passwordEncoder(passwordEncoder);
+    }
+
+    // health and scrape stay open only on the internal management port; served on the application port they need a token
+    @Order(1)
+    @Configuration
+    static class ManagementSecurityConfig extends WebSecurityConfigurerAdapter {
+
+        @Value("${server.port:8080}")
+        private int serverPort;
+        @Value("${management.server.port:-1}")
+        private int managementPort;
+
+        @Override
+        protected void configure(HttpSecurity http) throws Exception {
+            http.requestMatcher(request -> managementPort > 0 && managementPort != serverPort
+                            && request.getLocalPort() == managementPort)
+                    .csrf().disable()
+                    .authorizeRequests()
+                    .antMatchers(HttpMethod.GET, MANAGEMENT_MATCHERS_GET)
+                    .permitAll()
+                    .anyRequest().denyAll();
+
+            http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+        }
     }
 
 }
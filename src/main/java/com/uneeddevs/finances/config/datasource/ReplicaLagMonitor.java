@@ -0,0 +1,88 @@
+package com.uneeddevs.finances.config.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final LongAdder fallbackCount = new LongAdder();
+    private ScheduledExecutorService executor;
+    private volatile boolean replicaAvailable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public void start(long intervalMillis) {
+        check();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    void check() {
+        final boolean wasAvailable = replicaAvailable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            lagMillis = resultSet.next() ? resultSet.getLong(1) : -1;
+            replicaAvailable = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Replica lag check failed: {}", e.getMessage());
+            lagMillis = -1;
+            replicaAvailable = false;
+        }
+        if(wasAvailable && !replicaAvailable) {
+            fallbackCount.increment();
+            log.warn("Routing reads to the primary, replica lag {} ms exceeds {} ms or is unknown", lagMillis, maxLagMillis);
+        } else if(!wasAvailable && replicaAvailable) {
+            log.info("Routing read-only transactions to the replica, lag {} ms", lagMillis);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Last measured replica lag in milliseconds, -1 when unknown")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.replicaAvailable ? 1 : 0)
+                .description("Whether read-only transactions are routed to the replica")
+                .register(registry);
+        FunctionCounter.builder("datasource.replica.fallbacks", fallbackCount, LongAdder::sum)
+                .description("Times reads fell back to the primary")
+                .register(registry);
+    }
+}
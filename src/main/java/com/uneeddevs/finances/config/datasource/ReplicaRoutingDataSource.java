@@ -0,0 +1,38 @@
+package com.uneeddevs.finances.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Objects;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final String transactionPrefix;
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, String transactionPrefix,
+                                    ReplicaLagMonitor replicaLagMonitor) {
+        this.transactionPrefix = transactionPrefix;
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return readOnlyServiceTransaction() && replicaLagMonitor.isReplicaAvailable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    private boolean readOnlyServiceTransaction() {
+        final String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && Objects.nonNull(transactionName)
+                && transactionName.startsWith(transactionPrefix);
+    }
+}
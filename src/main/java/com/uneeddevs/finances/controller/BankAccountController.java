@@ -6,8 +6,8 @@ import com.uneeddevs.finances.dto.BankAccountInsertDTO;
 import com.uneeddevs.finances.dto.BankAccountResponseDTO;
 import com.uneeddevs.finances.dto.BankAccountUpdateDTO;
 import com.uneeddevs.finances.model.BankAccount;
-import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.util.ConditionalRequestUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -67,14 +68,21 @@ public class BankAccountController {
                     content =  {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = BankAccountResponseDTO.class))}
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Bank account not modified since the given ETag"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Bank account not found",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))}
             )})
-    public ResponseEntity<BankAccount> findById(@PathVariable(value = "uuid") UUID uuid, HttpServletRequest request){
+    public ResponseEntity<BankAccount> findById(@PathVariable(value = "uuid") UUID uuid, HttpServletRequest request,
+                                                WebRequest webRequest){
         log.info("Receive get bank account by id[{}] by ip: {}", uuid, request.getRemoteAddr());
+        if(ConditionalRequestUtil.checkNotModified(webRequest, bankAccountService.findVersion(uuid)))
+            return null;
         return ResponseEntity.ok(bankAccountService.findById(uuid));
     }
 
@@ -95,10 +103,9 @@ public class BankAccountController {
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))}
             )})
-    public ResponseEntity<List<BankAccount>> findByUser(@RequestParam(value = "user") UUID uuid, HttpServletRequest request){
+    public ResponseEntity<List<BankAccountResponseDTO>> findByUser(@RequestParam(value = "user") UUID uuid, HttpServletRequest request){
         log.info("Receive get bank account by user[{}] by ip: {}", uuid, request.getRemoteAddr());
-        final User user = new User(uuid);
-        return ResponseEntity.ok(bankAccountService.findByUser(user));
+        return ResponseEntity.ok(bankAccountService.findByUser(uuid));
     }
 
     @DeleteMapping(value = "/{uuid}")
@@ -110,6 +117,12 @@ public class BankAccountController {
                     responseCode = "204",
                     description = "Bank Account deleted"
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Bank account still has movements",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))}
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Bank account not found",
@@ -0,0 +1,46 @@
+package com.uneeddevs.finances.controller;
+
+import com.uneeddevs.finances.dto.CacheRegionStatisticsDTO;
+import com.uneeddevs.finances.service.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/cache")
+@Tag(name = "Cache", description = "Second-level cache statistics")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping(value = "/regions")
+    @Operation(summary = "Cache region statistics",
+            method = "GET",
+            description = "Hits, misses, puts and size of each second-level cache region")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Region statistics",
+                    content =  {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CacheRegionStatisticsDTO.class)))}
+            )})
+    public ResponseEntity<List<CacheRegionStatisticsDTO>> findRegionStatistics(HttpServletRequest request) {
+        log.info("Receive GET to cache region statistics by ip: {}", request.getRemoteAddr());
+        return ResponseEntity.ok(cacheStatisticsService.findRegionStatistics());
+    }
+}
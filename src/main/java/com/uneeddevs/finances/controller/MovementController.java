@@ -2,11 +2,23 @@ package com.uneeddevs.finances.controller;
 
 import com.uneeddevs.finances.controller.exception.StandardError;
 import com.uneeddevs.finances.controller.exception.ValidationError;
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+import com.uneeddevs.finances.dto.MovementBatchInsertDTO;
+import com.uneeddevs.finances.dto.MovementBatchResultDTO;
+import com.uneeddevs.finances.dto.MovementCursorDTO;
 import com.uneeddevs.finances.dto.MovementInsertDTO;
+import com.uneeddevs.finances.dto.MovementKeysetPageDTO;
 import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.MovementTransferDTO;
+import com.uneeddevs.finances.dto.MovementTransferResponseDTO;
+import com.uneeddevs.finances.enums.ExportFormat;
 import com.uneeddevs.finances.enums.MovementType;
 import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.IdempotencyService;
+import com.uneeddevs.finances.service.MovementExportService;
 import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.util.ConditionalRequestUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,16 +28,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -35,7 +62,15 @@ import java.util.UUID;
 @Tag(name = "Movement", description = "Movement operations")
 public class MovementController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("movementDate", "movementType", "value", "id");
+
     private final MovementService movementService;
+    private final MovementExportService movementExportService;
+    private final AccountSummaryService accountSummaryService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping(value = "/{uuid}")
     @Operation(summary = "Find Movement",
@@ -62,13 +97,47 @@ public class MovementController {
     @GetMapping(value = "/search")
     @Operation(summary = "Find Movement",
             method = "GET",
-            description = "Find movement by period and bank account")
+            description = "Find movement page by period and bank account")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found movement page",
+                    content =  {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MovementResponsePage.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Movements of the bank account not modified since the given ETag"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Movement not found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))}
+            )})
+    public ResponseEntity<Page<MovementResponseDTO>> findByPeriod(@RequestParam(value = "bankAccount") @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6") UUID bankAccount,
+                                                                  @RequestParam(value = "start") @Schema(example = "2021-10-06T20:43:03Z") String startString,
+                                                                  @RequestParam(value = "end") @Schema(example = "2021-10-05T20:43:03Z") String endString,
+                                                                  @ParameterObject @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = {"movementDate", "id"}) Pageable pageable,
+                                                                  WebRequest webRequest) {
+        final LocalDateTime start = parse(startString);
+        final LocalDateTime end = parse(endString);
+        final Pageable searchPageable = searchPageable(pageable);
+        if(ConditionalRequestUtil.checkNotModified(webRequest, movementService.findVersion(bankAccount)))
+            return null;
+        return ResponseEntity.ok(movementService.findByPeriodAndBankAccount(start, end, bankAccount, searchPageable));
+    }
+
+    @GetMapping(value = "/search/keyset")
+    @Operation(summary = "Find Movement",
+            method = "GET",
+            description = "Find movement by period and bank account ordered by date, continuing after the given cursor")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Found movement",
                     content =  {@Content(mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = MovementResponseDTO.class)))}
+                            schema = @Schema(implementation = MovementKeysetPageDTO.class))}
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -76,23 +145,101 @@ public class MovementController {
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))}
             )})
-    public ResponseEntity<List<Movement>> findByPeriod(@RequestParam(value = "bankAccount") @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6") UUID bankAccount,
-                                                       @RequestParam(value = "start") @Schema(example = "2021-10-06T20:43:03Z") String startString,
-                                                       @RequestParam(value = "end") @Schema(example = "2021-10-05T20:43:03Z") String endString) {
-        final DateTimeFormatter dateTimeFormat = DateTimeFormatter.ISO_DATE_TIME;
+    public ResponseEntity<MovementKeysetPageDTO> findByPeriodKeyset(@RequestParam(value = "bankAccount") @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6") UUID bankAccount,
+                                                                    @RequestParam(value = "start") @Schema(example = "2021-10-06T20:43:03Z") String startString,
+                                                                    @RequestParam(value = "end") @Schema(example = "2021-10-05T20:43:03Z") String endString,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if(size < 1 || size > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(String.format("Page size has to be between 1 and %d", MAX_PAGE_SIZE));
+        return ResponseEntity.ok(movementService.findByPeriodAndBankAccount(parse(startString), parse(endString),
+                bankAccount, Objects.isNull(cursor) ? null : MovementCursorDTO.decode(cursor), size));
+    }
+
+    @GetMapping(value = "/export")
+    @Operation(summary = "Export Movements",
+            method = "GET",
+            description = "Stream every movement of the bank account in the period as NDJSON or CSV, ordered by date")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Movements export",
+                    content =  {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Bank account not found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))}
+            )})
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "bankAccount") @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6") UUID bankAccount,
+                                                        @RequestParam(value = "start") @Schema(example = "2021-10-06T20:43:03Z") String startString,
+                                                        @RequestParam(value = "end") @Schema(example = "2021-10-05T20:43:03Z") String endString,
+                                                        @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+                                                        HttpServletRequest request) {
+        log.info("Receive GET to export {} movements of account {} by ip: {}", format, bankAccount, request.getRemoteAddr());
+        final StreamingResponseBody body = movementExportService.export(bankAccount, parse(startString), parse(endString), format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(String.format("movements-%s.%s", bankAccount, format.getExtension()))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/summary")
+    @Operation(summary = "Summarize Movements",
+            method = "GET",
+            description = "Opening and closing balance, input and output totals of the bank account in the period, day by day")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Account summary",
+                    content =  {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountSummaryDTO.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Bank account not found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardError.class))}
+            )})
+    public ResponseEntity<AccountSummaryDTO> summary(@RequestParam(value = "bankAccount") @Schema(example = "3fa85f64-5717-4562-b3fc-2c963f66afa6") UUID bankAccount,
+                                                     @RequestParam(value = "start") @Schema(example = "2021-10-01") String startString,
+                                                     @RequestParam(value = "end") @Schema(example = "2021-10-31") String endString) {
+        return ResponseEntity.ok(accountSummaryService.summarize(bankAccount, parseDate(startString), parseDate(endString)));
+    }
+
+    private LocalDateTime parse(String dateTime) {
         try {
-            final LocalDateTime start = dateTimeFormat.parse(startString, LocalDateTime::from);
-            final LocalDateTime end = dateTimeFormat.parse(endString, LocalDateTime::from);
-            return ResponseEntity.ok(movementService.findByPeriodAndBankAccount(start, end, bankAccount));
+            return DateTimeFormatter.ISO_DATE_TIME.parse(dateTime, LocalDateTime::from);
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException(e.getMessage());
         }
     }
 
+    private LocalDate parseDate(String date) {
+        try {
+            return DateTimeFormatter.ISO_LOCAL_DATE.parse(date, LocalDate::from);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private Pageable searchPageable(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort())
+            if(!SORTABLE_PROPERTIES.contains(order.getProperty()))
+                throw new IllegalArgumentException(String.format("Cannot sort movements by %s", order.getProperty()));
+        if(Objects.nonNull(pageable.getSort().getOrderFor("id")))
+            return pageable;
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
     @PostMapping(value = "/input")
     @Operation(summary = "Create new Movement",
             method = "POST",
-            description = "Create movement input to bank account")
+            description = "Create movement input to bank account, retries with the same Idempotency-Key header return the first movement")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
@@ -106,15 +253,17 @@ public class MovementController {
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = ValidationError.class))}
             )})
-    public ResponseEntity<Movement> inputMovement(@Valid @RequestBody MovementInsertDTO movementInsertDTO, HttpServletRequest request) {
+    public ResponseEntity<Movement> inputMovement(@Valid @RequestBody MovementInsertDTO movementInsertDTO,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  HttpServletRequest request) {
         log.info("Receive POST to create input movement {} by ip: {}", movementInsertDTO, request.getRemoteAddr());
-        return ResponseEntity.status(HttpStatus.CREATED).body(movementService.save(movementInsertDTO.toModel(MovementType.INPUT)));
+        return save(movementInsertDTO.toModel(MovementType.INPUT), idempotencyKey);
     }
 
     @PostMapping(value = "/output")
     @Operation(summary = "Create new Movement",
             method = "POST",
-            description = "Create movement output to bank account")
+            description = "Create movement output to bank account, retries with the same Idempotency-Key header return the first movement")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
@@ -128,9 +277,62 @@ public class MovementController {
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = ValidationError.class))}
             )})
-    public ResponseEntity<Movement> outputMovement(@Valid @RequestBody MovementInsertDTO movementInsertDTO, HttpServletRequest request) {
-        log.info("Receive POST to create input movement {} by ip: {}", movementInsertDTO, request.getRemoteAddr());
-        return ResponseEntity.status(HttpStatus.CREATED).body(movementService.save(movementInsertDTO.toModel(MovementType.OUTPUT)));
+    public ResponseEntity<Movement> outputMovement(@Valid @RequestBody MovementInsertDTO movementInsertDTO,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  HttpServletRequest request) {
+        log.info("Receive POST to create output movement {} by ip: {}", movementInsertDTO, request.getRemoteAddr());
+        return save(movementInsertDTO.toModel(MovementType.OUTPUT), idempotencyKey);
+    }
+
+    private ResponseEntity<Movement> save(Movement movement, String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(Objects.isNull(idempotencyKey)
+                ? movementService.save(movement)
+                : idempotencyService.save(idempotencyKey, movement));
+    }
+
+    @PostMapping(value = "/batch")
+    @Operation(summary = "Create Movements in batch",
+            method = "POST",
+            description = "Create input and output movements to bank accounts, applying the balance once per account")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Result of each movement, in request order",
+                    content =  {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = MovementBatchResultDTO.class)))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid movements",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ValidationError.class))}
+            )})
+    public ResponseEntity<List<MovementBatchResultDTO>> batchMovement(@Valid @RequestBody MovementBatchInsertDTO movementBatchInsertDTO, HttpServletRequest request) {
+        log.info("Receive POST to create {} movements by ip: {}", movementBatchInsertDTO.movements().size(), request.getRemoteAddr());
+        return ResponseEntity.ok(movementService.saveAll(movementBatchInsertDTO.toModels()));
+    }
+
+    @PostMapping(value = "/transfer")
+    @Operation(summary = "Transfer between bank accounts",
+            method = "POST",
+            description = "Create an output movement on the source account and an input movement on the target account in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Created movements, linked by the transfer id",
+                    content =  {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MovementTransferResponseDTO.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid transfer or insufficient balance",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ValidationError.class))}
+            )})
+    public ResponseEntity<MovementTransferResponseDTO> transfer(@Valid @RequestBody MovementTransferDTO movementTransferDTO, HttpServletRequest request) {
+        log.info("Receive POST to transfer {} by ip: {}", movementTransferDTO, request.getRemoteAddr());
+        return ResponseEntity.status(HttpStatus.CREATED).body(movementService.transfer(movementTransferDTO.sourceBankAccountId(),
+                movementTransferDTO.targetBankAccountId(), movementTransferDTO.value()));
     }
 
     @DeleteMapping(value = "/{uuid}")
@@ -154,5 +356,10 @@ public class MovementController {
         return ResponseEntity.noContent().build();
     }
 
-
+    // only documents the serialized page of the search endpoint
+    private static final class MovementResponsePage extends PageImpl<MovementResponseDTO> {
+        private MovementResponsePage() {
+            super(List.of());
+        }
+    }
 }
@@ -2,11 +2,14 @@ package com.uneeddevs.finances.controller;
 
 import com.uneeddevs.finances.controller.exception.StandardError;
 import com.uneeddevs.finances.controller.exception.ValidationError;
+import com.uneeddevs.finances.dto.UserCursorDTO;
 import com.uneeddevs.finances.dto.UserInsertDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
 import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.dto.UserUpdateDTO;
 import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.util.ConditionalRequestUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -20,9 +23,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
@@ -32,6 +37,9 @@ import java.util.UUID;
 @Tag(name = "User", description = "User endpoints")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserService userService;
 
     @GetMapping(value = "/page")
@@ -52,7 +60,39 @@ public class UserController {
     @PageableAsQueryParam
     public ResponseEntity<Iterable<UserResponseDTO>> findAll(Pageable pageable, HttpServletRequest request) {
         log.info("Receive get search users by ip: {}", request.getRemoteAddr());
-        return ResponseEntity.ok(userService.findPage(pageable).map(User::toUserResponseDTO));
+        return ResponseEntity.ok(userService.findPage(pageable));
+    }
+
+    @GetMapping(value = "/keyset")
+    @Operation(summary = "Find users by cursor",
+            method = "GET",
+            description = "Find users ordered by register date, continuing after the given cursor without counting every user")
+    @ApiResponses(value = {
+        @ApiResponse(
+                responseCode = "200",
+                description = "Found users",
+                content = {@Content(mediaType = "application/json",
+                        schema = @Schema(implementation = UserKeysetPageDTO.class))}
+        ),
+        @ApiResponse(
+                responseCode = "400",
+                description = "Invalid cursor or page size",
+                content = {@Content(mediaType = "application/json",
+                        schema = @Schema(implementation = StandardError.class))}
+        ),
+        @ApiResponse(
+                responseCode = "404",
+                description = "Users not found",
+                content = {@Content(mediaType = "application/json",
+                        schema = @Schema(implementation = StandardError.class))}
+        )})
+    public ResponseEntity<UserKeysetPageDTO> findKeyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                        HttpServletRequest request) {
+        log.info("Receive get keyset search users by ip: {}", request.getRemoteAddr());
+        if(size < 1 || size > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException(String.format("Page size has to be between 1 and %d", MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.findKeysetPage(Objects.isNull(cursor) ? null : UserCursorDTO.decode(cursor), size));
     }
 
     @GetMapping(value = "/{uuid}")
@@ -66,14 +106,21 @@ public class UserController {
                     content =  {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserResponseDTO.class))}
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "User not modified since the given ETag"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Users not found",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = StandardError.class))}
             )})
-    public ResponseEntity<User> findById(@PathVariable(value = "uuid") UUID uuid, HttpServletRequest request){
+    public ResponseEntity<User> findById(@PathVariable(value = "uuid") UUID uuid, HttpServletRequest request,
+                                         WebRequest webRequest){
         log.info("Receive get user by id[{}] users by ip: {}", uuid, request.getRemoteAddr());
+        if(ConditionalRequestUtil.checkNotModified(webRequest, userService.findUpdateDate(uuid)))
+            return null;
         return ResponseEntity.ok(userService.findById(uuid));
     }
 
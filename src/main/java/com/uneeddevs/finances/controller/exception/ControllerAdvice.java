@@ -1,10 +1,15 @@
 package com.uneeddevs.finances.controller.exception;
 
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
+import com.uneeddevs.finances.security.exception.PasswordEncoderSaturatedException;
+import com.uneeddevs.finances.service.engine.BalanceWriteEngineSaturatedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -27,6 +32,8 @@ public class ControllerAdvice {
     private static final String INTERNAL_SERVER_ERROR_TEXT = "Unexpected error";
     private static final String NOT_FOUND_TEXT = "Not found";
     private static final String FORBIDDEN_TEXT = "Forbidden";
+    private static final String SERVICE_UNAVAILABLE_TEXT = "Service unavailable";
+    private static final String CONFLICT_TEXT = "Conflict";
 
     @ExceptionHandler(value = MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -131,6 +138,58 @@ public class ControllerAdvice {
                 .build());
     }
 
+    @ExceptionHandler(value = AccessDeniedException.class)
+    public ResponseEntity<StandardError> forbidden(AccessDeniedException ex, HttpServletRequest request) {
+        HttpStatus httpStatus = HttpStatus.FORBIDDEN;
+        return ResponseEntity.status(httpStatus).body(StandardError.builder()
+                .error(FORBIDDEN_TEXT)
+                .message(FORBIDDEN_TEXT)
+                .path(request.getRequestURI())
+                .time(LocalDateTime.now())
+                .status(httpStatus.value())
+                .build());
+    }
+
+    @ExceptionHandler(value = PasswordEncoderSaturatedException.class)
+    public ResponseEntity<StandardError> serviceUnavailable(PasswordEncoderSaturatedException ex, HttpServletRequest request) {
+        HttpStatus httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(StandardError.builder()
+                        .error(SERVICE_UNAVAILABLE_TEXT)
+                        .message(ex.getMessage())
+                        .path(request.getRequestURI())
+                        .time(LocalDateTime.now())
+                        .status(httpStatus.value())
+                        .build());
+    }
+
+    @ExceptionHandler(value = BalanceWriteEngineSaturatedException.class)
+    public ResponseEntity<StandardError> serviceUnavailable(BalanceWriteEngineSaturatedException ex, HttpServletRequest request) {
+        HttpStatus httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(httpStatus)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(StandardError.builder()
+                        .error(SERVICE_UNAVAILABLE_TEXT)
+                        .message(ex.getMessage())
+                        .path(request.getRequestURI())
+                        .time(LocalDateTime.now())
+                        .status(httpStatus.value())
+                        .build());
+    }
+
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> conflict(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        HttpStatus httpStatus = HttpStatus.CONFLICT;
+        return ResponseEntity.status(httpStatus).body(StandardError.builder()
+                .error(CONFLICT_TEXT)
+                .message("Resource was modified concurrently, retry the request")
+                .path(request.getRequestURI())
+                .time(LocalDateTime.now())
+                .status(httpStatus.value())
+                .build());
+    }
+
     @ExceptionHandler(value = Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<StandardError> internalServerError(Exception ex, HttpServletRequest request) {
@@ -0,0 +1,46 @@
+package com.uneeddevs.finances.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final long slowRequestMillis;
+    private final int statementThreshold;
+
+    public SqlDiagnosticsFilter(@Value("${sql-diagnostics.slow-request-millis}") long slowRequestMillis,
+                                @Value("${sql-diagnostics.statement-threshold}") int statementThreshold) {
+        this.slowRequestMillis = slowRequestMillis;
+        this.statementThreshold = statementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        final long start = System.nanoTime();
+        final SqlStatistics sqlStatistics = SqlStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatistics.stop();
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if(millis >= slowRequestMillis || sqlStatistics.statementCount() >= statementThreshold)
+                log.warn("Slow request method={} uri={} status={} millis={} statements={} jdbcMillis={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), millis,
+                        sqlStatistics.statementCount(), sqlStatistics.jdbcMillis());
+        }
+    }
+}
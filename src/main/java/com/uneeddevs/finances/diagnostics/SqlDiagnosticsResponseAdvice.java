@@ -0,0 +1,42 @@
+package com.uneeddevs.finances.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Objects;
+
+@RestControllerAdvice
+public class SqlDiagnosticsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String JDBC_TIME_HEADER = "X-SQL-Time-Millis";
+
+    private final boolean responseHeaders;
+
+    public SqlDiagnosticsResponseAdvice(@Value("${sql-diagnostics.response-headers}") boolean responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return responseHeaders;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        final SqlStatistics sqlStatistics = SqlStatistics.current();
+        if(Objects.nonNull(sqlStatistics)) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(sqlStatistics.statementCount()));
+            response.getHeaders().set(JDBC_TIME_HEADER, String.valueOf(sqlStatistics.jdbcMillis()));
+        }
+        return body;
+    }
+}
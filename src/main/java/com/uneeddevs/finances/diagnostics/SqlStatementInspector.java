@@ -0,0 +1,16 @@
+package com.uneeddevs.finances.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Objects;
+
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        final SqlStatistics sqlStatistics = SqlStatistics.current();
+        if(Objects.nonNull(sqlStatistics))
+            sqlStatistics.countStatement();
+        return sql;
+    }
+}
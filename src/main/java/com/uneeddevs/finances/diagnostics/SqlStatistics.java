@@ -0,0 +1,44 @@
+package com.uneeddevs.finances.diagnostics;
+
+import java.util.concurrent.TimeUnit;
+
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long jdbcNanos;
+
+    private SqlStatistics() {
+    }
+
+    public static SqlStatistics start() {
+        final SqlStatistics sqlStatistics = new SqlStatistics();
+        CURRENT.set(sqlStatistics);
+        return sqlStatistics;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void countStatement() {
+        statementCount++;
+    }
+
+    void addJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    public long jdbcMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(jdbcNanos);
+    }
+}
@@ -0,0 +1,36 @@
+package com.uneeddevs.finances.diagnostics;
+
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.Objects;
+
+public class SqlTimingListener extends BaseSessionEventListener {
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addJdbcTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addJdbcTime();
+    }
+
+    private void addJdbcTime() {
+        final SqlStatistics sqlStatistics = SqlStatistics.current();
+        if(Objects.nonNull(sqlStatistics))
+            sqlStatistics.addJdbcTime(System.nanoTime() - executionStart);
+    }
+}
@@ -0,0 +1,20 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "Account daily summary")
+public record AccountDailySummaryDTO(
+        @Schema(name = "date", example = "2021-10-06")
+        LocalDate date,
+        @Schema(name = "inputTotal", example = "150.00")
+        BigDecimal inputTotal,
+        @Schema(name = "outputTotal", example = "48.75")
+        BigDecimal outputTotal,
+        @Schema(name = "movementCount", example = "3")
+        long movementCount,
+        @Schema(name = "closingBalance", example = "1101.25")
+        BigDecimal closingBalance) {
+}
@@ -0,0 +1,30 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "Account summary")
+public record AccountSummaryDTO(
+        @Schema(name = "bankAccountId", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+        UUID bankAccountId,
+        @Schema(name = "start", example = "2021-10-01")
+        LocalDate start,
+        @Schema(name = "end", example = "2021-10-31")
+        LocalDate end,
+        @Schema(name = "openingBalance", example = "1000.00")
+        BigDecimal openingBalance,
+        @Schema(name = "inputTotal", example = "150.00")
+        BigDecimal inputTotal,
+        @Schema(name = "outputTotal", example = "48.75")
+        BigDecimal outputTotal,
+        @Schema(name = "movementCount", example = "3")
+        long movementCount,
+        @Schema(name = "closingBalance", example = "1101.25")
+        BigDecimal closingBalance,
+        @Schema(name = "days")
+        List<AccountDailySummaryDTO> days) {
+}
@@ -0,0 +1,17 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "Cache region statistics")
+public record CacheRegionStatisticsDTO(
+        @Schema(name = "region", example = "com.uneeddevs.finances.model.BankAccount")
+        String region,
+        @Schema(name = "hitCount", example = "1250")
+        long hitCount,
+        @Schema(name = "missCount", example = "40")
+        long missCount,
+        @Schema(name = "putCount", example = "40")
+        long putCount,
+        @Schema(name = "elementCountInMemory", example = "38")
+        long elementCountInMemory) {
+}
@@ -0,0 +1,25 @@
+package com.uneeddevs.finances.dto;
+
+import com.uneeddevs.finances.model.Movement;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Schema(name = "Movement batch insert")
+public record MovementBatchInsertDTO(
+        @NotEmpty(message = "movements are mandatory")
+        @Size(max = MovementBatchInsertDTO.MAX_MOVEMENTS, message = "Too many movements")
+        List<@Valid @NotNull(message = "movement is mandatory") MovementBatchItemDTO> movements) {
+
+    public static final int MAX_MOVEMENTS = 10000;
+
+    public List<Movement> toModels() {
+        return movements.stream()
+                .map(MovementBatchItemDTO::toModel)
+                .toList();
+    }
+}
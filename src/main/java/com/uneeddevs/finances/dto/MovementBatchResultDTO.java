@@ -0,0 +1,23 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "Movement batch result")
+public record MovementBatchResultDTO(
+        @Schema(name = "index", example = "0")
+        int index,
+        @Schema(name = "created", example = "true")
+        boolean created,
+        @Schema(name = "movement")
+        MovementResponseDTO movement,
+        @Schema(name = "message", example = "Value to subtract cannot be greater than balance")
+        String message) {
+
+    public static MovementBatchResultDTO created(int index, MovementResponseDTO movement) {
+        return new MovementBatchResultDTO(index, true, movement, null);
+    }
+
+    public static MovementBatchResultDTO rejected(int index, String message) {
+        return new MovementBatchResultDTO(index, false, null, message);
+    }
+}
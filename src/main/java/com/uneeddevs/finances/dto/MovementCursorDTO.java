@@ -0,0 +1,40 @@
+package com.uneeddevs.finances.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
+
+public record MovementCursorDTO(LocalDateTime movementDate, UUID id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+
+    public MovementCursorDTO {
+        requireNonNull(movementDate, INVALID_CURSOR_MESSAGE);
+        requireNonNull(id, INVALID_CURSOR_MESSAGE);
+    }
+
+    public static MovementCursorDTO of(MovementResponseDTO movement) {
+        return new MovementCursorDTO(movement.movementDate(), movement.id());
+    }
+
+    public static MovementCursorDTO decode(String cursor) {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = decoded.indexOf(SEPARATOR);
+            return new MovementCursorDTO(LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((movementDate + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,14 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "Movement keyset page")
+public record MovementKeysetPageDTO(
+        @Schema(name = "movements")
+        List<MovementResponseDTO> movements,
+        @Schema(name = "nextCursor", description = "Cursor of the next page, absent on the last page",
+                example = "MjAyMS0xMC0wNlQyMDo0MzowM3wzZmE4NWY2NC01NzE3LTQ1NjItYjNmYy0yYzk2M2Y2NmFmYTY")
+        String nextCursor) {
+}
@@ -17,4 +17,8 @@ public record MovementResponseDTO(
         BigDecimal value,
         @Schema(name = "movementDate", example = "2021-10-06T20:43:03")
         LocalDateTime movementDate) {
+
+    public MovementResponseDTO(UUID id, Integer movementType, BigDecimal value, LocalDateTime movementDate) {
+        this(id, MovementType.valueOf(movementType), value, movementDate);
+    }
 }
@@ -0,0 +1,22 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(name = "Movement transfer")
+public record MovementTransferDTO(
+        @Schema(name = "value", example = "45.78")
+        @NotNull(message = "value is mandatory")
+        @Positive(message = "Invalid value")
+        BigDecimal value,
+        @Schema(name = "sourceBankAccountId", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+        @NotNull(message = "source bank account id is mandatory")
+        UUID sourceBankAccountId,
+        @Schema(name = "targetBankAccountId", example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+        @NotNull(message = "target bank account id is mandatory")
+        UUID targetBankAccountId) {
+}
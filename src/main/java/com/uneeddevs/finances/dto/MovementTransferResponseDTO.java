@@ -0,0 +1,15 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(name = "Movement transfer response")
+public record MovementTransferResponseDTO(
+        @Schema(name = "transferId", example = "9b2f3c1e-4d5a-4e6f-8a7b-1c2d3e4f5a6b")
+        UUID transferId,
+        @Schema(name = "output")
+        MovementResponseDTO output,
+        @Schema(name = "input")
+        MovementResponseDTO input) {
+}
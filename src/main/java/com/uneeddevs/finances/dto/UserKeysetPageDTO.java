@@ -0,0 +1,14 @@
+package com.uneeddevs.finances.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "User keyset page")
+public record UserKeysetPageDTO(
+        @Schema(name = "users")
+        List<UserResponseDTO> users,
+        @Schema(name = "nextCursor", description = "Cursor of the next page, absent on the last page",
+                example = "MjAyMS0wOS0yMFQxNToxODo1NC43MDh8M2ZhODVmNjQtNTcxNy00NTYyLWIzZmMtMmM5NjNmNjZhZmE2")
+        String nextCursor) {
+}
@@ -0,0 +1,50 @@
+package com.uneeddevs.finances.model;
+
+import com.uneeddevs.finances.dto.AccountDailySummaryDTO;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.lang.NonNull;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
+
+@Entity
+@Getter
+@ToString
+@Table(name = "TB_ACCOUNT_DAILY_SUMMARY")
+@NoArgsConstructor(onConstructor = @__(@Deprecated))
+public class AccountDailySummary {
+
+    @EmbeddedId
+    private AccountDailySummaryId id;
+    @Column(nullable = false)
+    private BigDecimal inputTotal;
+    @Column(nullable = false)
+    private BigDecimal outputTotal;
+    @Column(nullable = false)
+    private Long movementCount;
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+
+    public AccountDailySummary(@NonNull AccountDailySummaryId id,
+                               @NonNull BigDecimal inputTotal,
+                               @NonNull BigDecimal outputTotal,
+                               long movementCount,
+                               @NonNull BigDecimal closingBalance) {
+        this.id = requireNonNull(id, "id is mandatory");
+        this.inputTotal = requireNonNull(inputTotal, "input total is mandatory");
+        this.outputTotal = requireNonNull(outputTotal, "output total is mandatory");
+        this.movementCount = movementCount;
+        this.closingBalance = requireNonNull(closingBalance, "closing balance is mandatory");
+    }
+
+    public AccountDailySummaryDTO toAccountDailySummaryDTO() {
+        return new AccountDailySummaryDTO(id.getSummaryDate(), inputTotal, outputTotal, movementCount, closingBalance);
+    }
+}
@@ -0,0 +1,34 @@
+package com.uneeddevs.finances.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.lang.NonNull;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
+
+@Getter
+@ToString
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor(onConstructor = @__(@Deprecated))
+public class AccountDailySummaryId implements Serializable {
+
+    @Column(nullable = false)
+    private UUID bankAccountId;
+    @Column(nullable = false)
+    private LocalDate summaryDate;
+
+    public AccountDailySummaryId(@NonNull UUID bankAccountId,
+                                 @NonNull LocalDate summaryDate) {
+        this.bankAccountId = requireNonNull(bankAccountId, "bank account is mandatory");
+        this.summaryDate = requireNonNull(summaryDate, "summary date is mandatory");
+    }
+}
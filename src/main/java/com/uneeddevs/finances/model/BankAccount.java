@@ -5,6 +5,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.lang.NonNull;
 
 import javax.persistence.*;
@@ -16,7 +20,9 @@ import static com.uneeddevs.finances.util.CheckUtils.*;
 @Entity
 @Getter
 @ToString
+@Cacheable
 @Table(name = "TB_BANK_ACCOUNT")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bank-account")
 @NoArgsConstructor(onConstructor = @__(@Deprecated))
 public class BankAccount {
 
@@ -31,12 +37,16 @@ public class BankAccount {
     private String name;
     @ManyToOne
     @ToString.Exclude
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(nullable = false)
     private User user;
     @OneToMany
     @ToString.Exclude
     @JoinColumn(name = "BANK_ACCOUNT_ID")
     private final Set<Movement> movements = new HashSet<>();
+    @Version
+    @Column(nullable = false)
+    private long version;
 
     public BankAccount(@NonNull UUID id,
                        @NonNull String name) {
@@ -0,0 +1,43 @@
+package com.uneeddevs.finances.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.lang.NonNull;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
+import static com.uneeddevs.finances.util.CheckUtils.requireNotBlank;
+
+@Entity
+@Getter
+@ToString
+@Table(name = "TB_IDEMPOTENCY_RECORD")
+@NoArgsConstructor(onConstructor = @__(@Deprecated))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 150)
+    private String idempotencyKey;
+    @Column(nullable = false, length = 150)
+    private String fingerprint;
+    @Column(nullable = false)
+    private UUID movementId;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public IdempotencyRecord(@NonNull String idempotencyKey,
+                             @NonNull String fingerprint,
+                             @NonNull UUID movementId) {
+        this.idempotencyKey = requireNotBlank(idempotencyKey, "idempotency key is mandatory");
+        this.fingerprint = requireNotBlank(fingerprint, "fingerprint is mandatory");
+        this.movementId = requireNonNull(movementId, "movement id is mandatory");
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -4,12 +4,12 @@ import com.uneeddevs.finances.dto.MovementResponseDTO;
 import com.uneeddevs.finances.enums.MovementType;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.lang.NonNull;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
@@ -29,12 +29,13 @@ public class Movement {
     private Integer movementType;
     @Column(nullable = false)
     private BigDecimal value;
-    @CreationTimestamp
     @Column(nullable = false)
     private LocalDateTime movementDate;
     @ManyToOne
     @JoinColumn(nullable = false)
     private BankAccount bankAccount;
+    @Column(updatable = false)
+    private UUID transferId;
 
     public Movement(@NonNull MovementType movementType,
                     @NonNull BigDecimal value,
@@ -46,6 +47,19 @@ public class Movement {
         this.bankAccount = requireNonNull(bankAccount, "bank account is mandatory");
     }
 
+    public Movement(@NonNull MovementType movementType,
+                    @NonNull BigDecimal value,
+                    @NonNull BankAccount bankAccount,
+                    @NonNull UUID transferId) {
+        this(movementType, value, bankAccount);
+        this.transferId = requireNonNull(transferId, "transfer id is mandatory");
+    }
+
+    @PrePersist
+    private void prePersist() {
+        movementDate = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public UUID getBankAccountId() {
         return  bankAccount.getId();
     }
@@ -5,7 +5,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -14,8 +18,11 @@ import java.util.Objects;
 
 @Entity
 @Getter
+@Immutable
 @ToString
+@Cacheable
 @Table(name = "TB_PROFILE")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "profile")
 @NoArgsConstructor(onConstructor = @__(@Deprecated))
 public class Profile {
 
@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.lang.NonNull;
@@ -25,7 +28,9 @@ import static java.util.Objects.isNull;
 @Entity
 @Getter
 @ToString
+@Cacheable
 @Table(name = "TB_USER")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @NoArgsConstructor(onConstructor = @__(@Deprecated))
 public class User implements UserDetails {
 
@@ -43,6 +48,7 @@ public class User implements UserDetails {
     @ToString.Exclude
     private String password;
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime registerDate;
     @UpdateTimestamp
     private LocalDateTime updateDate;
@@ -51,6 +57,8 @@ public class User implements UserDetails {
             inverseJoinColumns = @JoinColumn(name = "PROFILE_ID", nullable = false)
     )
     @ToString.Exclude
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-profiles")
     private final Set<Profile> profiles = new HashSet<>();
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "USER_ID")
@@ -0,0 +1,48 @@
+package com.uneeddevs.finances.repository;
+
+import com.uneeddevs.finances.model.AccountDailySummary;
+import com.uneeddevs.finances.model.AccountDailySummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountDailySummaryRepository extends JpaRepository<AccountDailySummary, AccountDailySummaryId> {
+
+    @Query("select s from AccountDailySummary s where s.id.bankAccountId = :bankAccountId " +
+            "and s.id.summaryDate between :start and :end order by s.id.summaryDate")
+    List<AccountDailySummary> findByPeriod(@Param("bankAccountId") UUID bankAccountId,
+                                           @Param("start") LocalDate start,
+                                           @Param("end") LocalDate end);
+
+    @Query("select coalesce(sum(s.inputTotal - s.outputTotal), 0) from AccountDailySummary s " +
+            "where s.id.bankAccountId = :bankAccountId and s.id.summaryDate > :date")
+    BigDecimal sumBalanceChangeAfter(@Param("bankAccountId") UUID bankAccountId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("update AccountDailySummary s set s.inputTotal = s.inputTotal + :inputTotal, " +
+            "s.outputTotal = s.outputTotal + :outputTotal, s.movementCount = s.movementCount + :movementCount, " +
+            "s.closingBalance = s.closingBalance + :inputTotal - :outputTotal " +
+            "where s.id.bankAccountId = :bankAccountId and s.id.summaryDate = :date")
+    int addToDay(@Param("bankAccountId") UUID bankAccountId,
+                 @Param("date") LocalDate date,
+                 @Param("inputTotal") BigDecimal inputTotal,
+                 @Param("outputTotal") BigDecimal outputTotal,
+                 @Param("movementCount") long movementCount);
+
+    @Modifying
+    @Query("update AccountDailySummary s set s.closingBalance = s.closingBalance + :balanceChange " +
+            "where s.id.bankAccountId = :bankAccountId and s.id.summaryDate > :date")
+    int addToClosingBalanceAfter(@Param("bankAccountId") UUID bankAccountId,
+                                 @Param("date") LocalDate date,
+                                 @Param("balanceChange") BigDecimal balanceChange);
+
+    @Modifying
+    @Query("delete from AccountDailySummary s where s.id.bankAccountId = :bankAccountId")
+    int deleteByBankAccountId(@Param("bankAccountId") UUID bankAccountId);
+}
@@ -1,14 +1,50 @@
 package com.uneeddevs.finances.repository;
 
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
 import com.uneeddevs.finances.model.BankAccount;
-import com.uneeddevs.finances.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+
 public interface BankAccountRepository extends JpaRepository<BankAccount, UUID> {
 
-    List<BankAccount> findByUser(User user);
+    // a JPQL update empties the whole bank-account cache region; these native updates name a space no entity maps,
+    // so callers soft lock only the updated account, and flush first since that space never triggers the auto flush
+    String NATIVE_UPDATE_SPACE = "tb_bank_account_native_update";
+
+    @Query("select new com.uneeddevs.finances.dto.BankAccountResponseDTO(b.id, b.name, b.balance) " +
+            "from BankAccount b where b.user.id = :userId")
+    List<BankAccountResponseDTO> findResponsesByUserId(@Param("userId") UUID userId);
+
+    @Query("select b.user.id from BankAccount b where b.id = :id")
+    Optional<UUID> findUserIdById(@Param("id") UUID id);
+
+    @Query("select b.balance from BankAccount b where b.id = :id")
+    BigDecimal findBalanceById(@Param("id") UUID id);
+
+    @Query("select b.version from BankAccount b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = NATIVE_UPDATE_SPACE))
+    @Query(value = "update tb_bank_account set balance = balance + :value, version = version + 1 " +
+            "where id = :id and balance + :value >= 0", nativeQuery = true)
+    int addBalance(@Param("id") UUID id, @Param("value") BigDecimal value);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = NATIVE_UPDATE_SPACE))
+    @Query(value = "update tb_bank_account set name = :name, version = version + 1 where id = :id", nativeQuery = true)
+    int rename(@Param("id") UUID id, @Param("name") String name);
 
 }
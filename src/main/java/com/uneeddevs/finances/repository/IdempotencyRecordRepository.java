@@ -0,0 +1,23 @@
+package com.uneeddevs.finances.repository;
+
+import com.uneeddevs.finances.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKeyAndCreatedAtAfter(String idempotencyKey, LocalDateTime threshold);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :idempotencyKey and r.createdAt <= :threshold")
+    int deleteExpired(@Param("idempotencyKey") String idempotencyKey, @Param("threshold") LocalDateTime threshold);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt <= :threshold")
+    int deleteExpired(@Param("threshold") LocalDateTime threshold);
+}
@@ -1,14 +1,64 @@
 package com.uneeddevs.finances.repository;
 
+import com.uneeddevs.finances.dto.MovementResponseDTO;
 import com.uneeddevs.finances.model.BankAccount;
 import com.uneeddevs.finances.model.Movement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface MovementRepository extends JpaRepository<Movement, UUID> {
 
-    List<Movement> findByMovementDateBetweenAndBankAccount(LocalDateTime start, LocalDateTime end, BankAccount bankAccount);
+    @Query("select m.bankAccount.id from Movement m where m.id = :id")
+    Optional<UUID> findBankAccountIdById(@Param("id") UUID id);
+
+    @Query(value = "select new com.uneeddevs.finances.dto.MovementResponseDTO(m.id, m.movementType, m.value, m.movementDate) " +
+            "from Movement m where m.bankAccount.id = :bankAccountId and m.movementDate between :start and :end",
+            countQuery = "select count(m) from Movement m where m.bankAccount.id = :bankAccountId and m.movementDate between :start and :end")
+    Page<MovementResponseDTO> findResponsesByPeriodAndBankAccount(@Param("start") LocalDateTime start,
+                                                                  @Param("end") LocalDateTime end,
+                                                                  @Param("bankAccountId") UUID bankAccountId,
+                                                                  Pageable pageable);
+
+    @Query("select new com.uneeddevs.finances.dto.MovementResponseDTO(m.id, m.movementType, m.value, m.movementDate) " +
+            "from Movement m where m.bankAccount.id = :bankAccountId and m.movementDate between :start and :end " +
+            "order by m.movementDate, m.id")
+    List<MovementResponseDTO> findKeysetPage(@Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end,
+                                             @Param("bankAccountId") UUID bankAccountId,
+                                             Pageable pageable);
+
+    @Query("select new com.uneeddevs.finances.dto.MovementResponseDTO(m.id, m.movementType, m.value, m.movementDate) " +
+            "from Movement m where m.bankAccount.id = :bankAccountId and m.movementDate between :start and :end " +
+            "and (m.movementDate > :movementDate or (m.movementDate = :movementDate and m.id > :id)) " +
+            "order by m.movementDate, m.id")
+    List<MovementResponseDTO> findKeysetPageAfter(@Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end,
+                                                  @Param("bankAccountId") UUID bankAccountId,
+                                                  @Param("movementDate") LocalDateTime movementDate,
+                                                  @Param("id") UUID id,
+                                                  Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select m from Movement m where m.bankAccount = :bankAccount and m.movementDate between :start and :end " +
+            "order by m.movementDate, m.id")
+    Stream<Movement> streamByPeriodAndBankAccount(@Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end,
+                                                  @Param("bankAccount") BankAccount bankAccount);
+
+    @Query("select count(m) > 0 from Movement m where m.bankAccount.id = :bankAccountId")
+    boolean existsByBankAccountId(@Param("bankAccountId") UUID bankAccountId);
 }
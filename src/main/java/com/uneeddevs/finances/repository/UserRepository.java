@@ -1,12 +1,47 @@
 package com.uneeddevs.finances.repository;
 
+import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.projection.UserRoleProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    @Query(value = "select new com.uneeddevs.finances.dto.UserResponseDTO(u.id, u.name, u.email, u.registerDate) from User u",
+            countQuery = "select count(u) from User u")
+    Page<UserResponseDTO> findResponses(Pageable pageable);
+
+    @Query("select new com.uneeddevs.finances.dto.UserResponseDTO(u.id, u.name, u.email, u.registerDate) from User u " +
+            "order by u.registerDate, u.id")
+    List<UserResponseDTO> findKeysetPage(Pageable pageable);
+
+    @Query("select new com.uneeddevs.finances.dto.UserResponseDTO(u.id, u.name, u.email, u.registerDate) from User u " +
+            "where u.registerDate > :registerDate or (u.registerDate = :registerDate and u.id > :id) " +
+            "order by u.registerDate, u.id")
+    List<UserResponseDTO> findKeysetPageAfter(@Param("registerDate") LocalDateTime registerDate,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
+    @Query("select coalesce(u.updateDate, u.registerDate) from User u where u.id = :id")
+    Optional<LocalDateTime> findUpdateDateById(@Param("id") UUID id);
+
+    @Query("select u.id as userId, p.roleName as roleName from User u join u.profiles p where u.id in :ids")
+    List<UserRoleProjection> findRolesByUserIds(@Param("ids") Collection<UUID> ids);
 }
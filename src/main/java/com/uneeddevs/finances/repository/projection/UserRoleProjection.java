@@ -0,0 +1,10 @@
+package com.uneeddevs.finances.repository.projection;
+
+import java.util.UUID;
+
+public interface UserRoleProjection {
+
+    UUID getUserId();
+    String getRoleName();
+
+}
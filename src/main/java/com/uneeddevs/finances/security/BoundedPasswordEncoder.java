@@ -0,0 +1,133 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.security.exception.PasswordEncoderSaturatedException;
+import com.uneeddevs.finances.util.LatencyRecorder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String SATURATED_TEXT = "Password hashing is saturated, try again later";
+
+    private final int strength;
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final LatencyRecorder encodeLatency = new LatencyRecorder();
+    private final LatencyRecorder matchLatency = new LatencyRecorder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity) {
+        this.strength = strength;
+        this.bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        final BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+                threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> bCryptPasswordEncoder.encode(rawPassword), encodeLatency);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword), matchLatency);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if(encodedPassword == null)
+            return false;
+        final Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public PasswordEncoderStats stats() {
+        final long hashes = encodeLatency.count() + matchLatency.count();
+        final long hashNanos = encodeLatency.totalNanos() + matchLatency.totalNanos();
+        return new PasswordEncoderStats(executor.getQueue().size(), executor.getActiveCount(), hashes,
+                rejectedCount.sum(), hashes == 0 ? 0 : hashNanos / (hashes * 1_000_000d));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeLatency.register(registry, "password.encoder.hash", "BCrypt hashing time", Tags.of("operation", "encode"));
+        matchLatency.register(registry, "password.encoder.hash", "BCrypt hashing time", Tags.of("operation", "match"));
+        FunctionCounter.builder("password.encoder.rejected", rejectedCount, LongAdder::sum)
+                .description("Hashes rejected because the pool was saturated")
+                .register(registry);
+        Gauge.builder("password.encoder.queued", executor, pool -> pool.getQueue().size())
+                .description("Hashes waiting for a worker")
+                .register(registry);
+        Gauge.builder("password.encoder.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers hashing")
+                .register(registry);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> hash, LatencyRecorder latency) {
+        final Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                final long start = System.nanoTime();
+                try {
+                    return hash.call();
+                } finally {
+                    latency.record(start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("Rejecting password hash, {} hashes queued", executor.getQueue().size());
+            throw new PasswordEncoderSaturatedException(SATURATED_TEXT);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordEncoderSaturatedException(SATURATED_TEXT);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "password-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -18,11 +18,22 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
-
-    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserService userService) {
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final boolean statelessAuthorization;
+
+    public JwtAuthorizationFilter(AuthenticationManager authenticationManager,
+                                  JwtUtil jwtUtil,
+                                  UserService userService,
+                                  PrincipalCache principalCache,
+                                  TokenRevocationList tokenRevocationList,
+                                  boolean statelessAuthorization) {
         super(authenticationManager);
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.principalCache = principalCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.statelessAuthorization = statelessAuthorization;
     }
 
     @Override
@@ -38,11 +49,14 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
     }
 
     private UsernamePasswordAuthenticationToken getAuthentication(String token){
-        if(jwtUtil.isValidToken(token)){
-            String username = jwtUtil.getUsername(token);
-            UserDetails user = userService.loadUserByUsername(username);
+        final JwtToken jwtToken = jwtUtil.verify(token).orElse(null);
+        if(Objects.isNull(jwtToken) || tokenRevocationList.isRevoked(jwtToken))
+            return null;
+        final UserDetails user = statelessAuthorization
+                ? jwtToken.toPrincipal()
+                : principalCache.get(jwtToken.subject(), userService::loadUserByUsername);
+        if(Objects.nonNull(user))
             return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-        }
         return null;
     }
 
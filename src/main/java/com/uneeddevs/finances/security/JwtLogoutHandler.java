@@ -0,0 +1,28 @@
+package com.uneeddevs.finances.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Objects;
+
+public class JwtLogoutHandler implements LogoutHandler {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+
+    public JwtLogoutHandler(JwtUtil jwtUtil, TokenRevocationList tokenRevocationList) {
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        String header = request.getHeader("Authorization");
+        if(Objects.nonNull(header) && header.startsWith("Bearer "))
+            jwtUtil.verify(header.replace("Bearer ", ""))
+                    .ifPresent(tokenRevocationList::revokeToken);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.uneeddevs.finances.security;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public record JwtToken(String token,
+                       String subject,
+                       String id,
+                       List<String> roles,
+                       Date issuedAt,
+                       Date expiresAt) {
+
+    public boolean isValid() {
+        return Objects.nonNull(subject)
+                && Objects.nonNull(expiresAt)
+                && System.currentTimeMillis() < expiresAt.getTime();
+    }
+
+    public String signature() {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+
+    public TokenPrincipal toPrincipal() {
+        try {
+            return new TokenPrincipal(UUID.fromString(id), subject, roles);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
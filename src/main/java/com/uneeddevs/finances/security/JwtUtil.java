@@ -4,75 +4,157 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.uneeddevs.finances.model.Profile;
 import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.util.LatencyRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
-    private  final Long expiration;
-    private final String secret;
+    private static final String ISSUER = "com.uneeddevs";
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
 
-    public JwtUtil(@Value("${jwt.expiration}") Long expiration, @Value("${jwt.secret}") String secret) {
+    private final Long expiration;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<String, JwtToken> verifiedTokens;
+    private final LatencyRecorder signLatency = new LatencyRecorder();
+    private final LatencyRecorder cachedVerifyLatency = new LatencyRecorder();
+    private final LatencyRecorder signatureVerifyLatency = new LatencyRecorder();
+    private final LatencyRecorder rejectedVerifyLatency = new LatencyRecorder();
+
+    public JwtUtil(@Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.secret}") String secret,
+                   @Value("${jwt.verified-cache.maximum-size}") Long verifiedCacheSize) {
         this.expiration = expiration;
-        this.secret = secret;
+        this.algorithm = Algorithm.HMAC512(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.verifiedTokens = verifiedCacheSize > 0 ? Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .build() : null;
     }
 
     public String generateToken(User user){
-        Algorithm algorithm = Algorithm.HMAC512(secret);
-        return JWT.create()
+        final long start = System.nanoTime();
+        final Date issuedAt = new Date();
+        final Date expiresAt = new Date(issuedAt.getTime() + expiration);
+        final List<String> roles = user.getProfiles()
+                .stream()
+                .map(Profile::getRoleName)
+                .toList();
+        final String id = String.valueOf(user.getId());
+        final String token = JWT.create()
                 .withSubject(user.getUsername())
-                .withExpiresAt(new Date(System.currentTimeMillis() + expiration))
-                .withIssuer("com.uneeddevs")
-                .withClaim("id", String.valueOf(user.getId()))
-                .withClaim("roles", "[" + user.getProfiles()
-                        .stream()
-                        .map(Profile::getRoleName)
-                        .collect(Collectors.joining(","))
-                    + "]"
-                )
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(expiresAt)
+                .withIssuer(ISSUER)
+                .withClaim("id", id)
+                .withClaim("roles", "[" + String.join(",", roles) + "]")
+                .withClaim(ISSUED_AT_MILLIS, issuedAt.getTime())
                 .sign(algorithm);
+        cache(new JwtToken(token, user.getUsername(), id, roles,
+                issuedAt, truncateToSeconds(expiresAt)));
+        signLatency.record(start);
+        return token;
     }
 
-    public boolean isValidToken(String token){
-        DecodedJWT decodedJWT = getDecodedJWT(token);
-
-        if(Objects.nonNull(decodedJWT)){
-            String username = decodedJWT.getSubject();
-            Date expirationDate = decodedJWT.getExpiresAt();
-            Date now = new Date(System.currentTimeMillis());
-            return Objects.nonNull(username) && Objects.nonNull(expirationDate) && now.before(expirationDate);
+    public Optional<JwtToken> verify(String token) {
+        final long start = System.nanoTime();
+        JwtToken jwtToken = Objects.isNull(verifiedTokens) ? null : verifiedTokens.getIfPresent(token);
+        final boolean cached = Objects.nonNull(jwtToken);
+        if(!cached) {
+            DecodedJWT decodedJWT = getDecodedJWT(token);
+            if(Objects.isNull(decodedJWT)) {
+                rejectedVerifyLatency.record(start);
+                return Optional.empty();
+            }
+            jwtToken = toJwtToken(decodedJWT);
+            cache(jwtToken);
         }
-        return false;
+        if(jwtToken.isValid()) {
+            (cached ? cachedVerifyLatency : signatureVerifyLatency).record(start);
+            return Optional.of(jwtToken);
+        }
+        if(Objects.nonNull(verifiedTokens))
+            verifiedTokens.invalidate(token);
+        rejectedVerifyLatency.record(start);
+        return Optional.empty();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        signLatency.register(registry, "jwt.sign", "Token signing time", Tags.empty());
+        cachedVerifyLatency.register(registry, "jwt.verify", "Token verification time", Tags.of("result", "cached"));
+        signatureVerifyLatency.register(registry, "jwt.verify", "Token verification time", Tags.of("result", "verified"));
+        rejectedVerifyLatency.register(registry, "jwt.verify", "Token verification time", Tags.of("result", "rejected"));
+    }
+
+    private void cache(JwtToken jwtToken) {
+        if(Objects.nonNull(verifiedTokens))
+            verifiedTokens.put(jwtToken.token(), jwtToken);
+    }
+
+    public boolean isValidToken(String token){
+        return verify(token).isPresent();
     }
 
     public String getUsername(String token){
-        DecodedJWT decodedJWT = getDecodedJWT(token);
-        if(Objects.nonNull(decodedJWT))
-            return decodedJWT.getSubject();
-        return null;
+        return verify(token)
+                .map(JwtToken::subject)
+                .orElse(null);
     }
 
     public Long getExpiration(String token) {
-        DecodedJWT decodedJWT = getDecodedJWT(token);
-        if(Objects.nonNull(decodedJWT))
-            return decodedJWT.getExpiresAt().getTime();
-        return 0L;
+        return verify(token)
+                .map(jwtToken -> jwtToken.expiresAt().getTime())
+                .orElse(0L);
+    }
+
+    private JwtToken toJwtToken(DecodedJWT decodedJWT) {
+        return new JwtToken(decodedJWT.getToken(),
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim("id").asString(),
+                getRoles(decodedJWT.getClaim("roles").asString()),
+                getIssuedAt(decodedJWT),
+                decodedJWT.getExpiresAt());
+    }
+
+    // "iat" only keeps whole seconds, revocation compares against the millisecond claim when the token has it
+    private Date getIssuedAt(DecodedJWT decodedJWT) {
+        Long issuedAtMillis = decodedJWT.getClaim(ISSUED_AT_MILLIS).asLong();
+        return Objects.isNull(issuedAtMillis) ? decodedJWT.getIssuedAt() : new Date(issuedAtMillis);
+    }
+
+    private List<String> getRoles(String roles) {
+        if(Objects.isNull(roles))
+            return List.of();
+        return Arrays.stream(roles.replace("[", "").replace("]", "").split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .toList();
+    }
+
+    private Date truncateToSeconds(Date date) {
+        return new Date(date.getTime() / 1000 * 1000);
     }
 
     private DecodedJWT getDecodedJWT(String token){
         try {
-            Algorithm algorithm = Algorithm.HMAC512(secret);
-            JWTVerifier verifier = JWT
-                    .require(algorithm)
-                    .withIssuer("com.uneeddevs")
-                    .build();
             return verifier.verify(token);
         } catch (Exception e){
             return null;
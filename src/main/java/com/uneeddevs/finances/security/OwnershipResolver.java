@@ -0,0 +1,68 @@
+package com.uneeddevs.finances.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.uneeddevs.finances.enums.ProfileRole;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.util.UserUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component("ownershipResolver")
+public class OwnershipResolver {
+
+    private final BankAccountRepository bankAccountRepository;
+    private final MovementRepository movementRepository;
+    private final Cache<UUID, UUID> accountOwners;
+
+    public OwnershipResolver(BankAccountRepository bankAccountRepository,
+                             MovementRepository movementRepository,
+                             @Value("${ownership.cache.maximum-size}") Long maximumSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.movementRepository = movementRepository;
+        this.accountOwners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UUID> accountOwner(UUID bankAccountId) {
+        if(Objects.isNull(bankAccountId))
+            return Optional.empty();
+        return Optional.ofNullable(accountOwners.get(bankAccountId,
+                id -> bankAccountRepository.findUserIdById(id).orElse(null)));
+    }
+
+    public Optional<UUID> movementOwner(UUID movementId) {
+        if(Objects.isNull(movementId))
+            return Optional.empty();
+        return movementRepository.findBankAccountIdById(movementId).flatMap(this::accountOwner);
+    }
+
+    public boolean canAccessAccount(UUID bankAccountId) {
+        return UserUtil.hasAuthority(ProfileRole.ADMIN) || isAuthenticatedUser(accountOwner(bankAccountId));
+    }
+
+    public boolean canAccessMovement(UUID movementId) {
+        return UserUtil.hasAuthority(ProfileRole.ADMIN) || isAuthenticatedUser(movementOwner(movementId));
+    }
+
+    public void evict(UUID bankAccountId) {
+        accountOwners.invalidate(bankAccountId);
+    }
+
+    public CacheStats stats() {
+        return accountOwners.stats();
+    }
+
+    private boolean isAuthenticatedUser(Optional<UUID> ownerId) {
+        return ownerId.map(id -> id.equals(UserUtil.authenticatedUUID())).orElse(false);
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.uneeddevs.finances.security;
+
+public record PasswordEncoderStats(int queueDepth, int activeCount, long hashCount, long rejectedCount,
+                                   double meanHashMillis) {
+}
@@ -0,0 +1,78 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.model.Profile;
+import com.uneeddevs.finances.model.User;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNonNull;
+import static com.uneeddevs.finances.util.CheckUtils.requireNotBlank;
+
+@Getter
+@ToString
+public class TokenPrincipal implements UserDetails {
+
+    private final UUID id;
+    private final String email;
+    private final List<String> roles;
+
+    public TokenPrincipal(@NonNull UUID id,
+                          @NonNull String email,
+                          @NonNull List<String> roles) {
+        this.id = requireNonNull(id, "id is mandatory");
+        this.email = requireNotBlank(email, "Email is mandatory");
+        this.roles = List.copyOf(requireNonNull(roles, "roles are mandatory"));
+    }
+
+    public User toUser() {
+        User user = new User(id);
+        for(var role: roles)
+            user.addProfile(new Profile(role));
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.uneeddevs.finances.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Objects;
+
+@Component
+public class TokenRevocationList {
+
+    private final Cache<String, Boolean> revokedTokens;
+    private final Cache<String, Long> revokedUsers;
+
+    public TokenRevocationList(@Value("${jwt.expiration}") Long expiration,
+                               @Value("${jwt.revocation.maximum-size}") Long maximumSize) {
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expiration))
+                .build();
+        this.revokedUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expiration))
+                .build();
+    }
+
+    public void revokeToken(JwtToken jwtToken) {
+        revokedTokens.put(jwtToken.signature(), Boolean.TRUE);
+    }
+
+    // tokens issued up to the revocation millisecond are rejected, so it only returns once the clock has moved
+    // past it and a token issued for the new credentials is always newer
+    public void revokeUser(String username) {
+        final long revokedAt = System.currentTimeMillis();
+        revokedUsers.put(username, revokedAt);
+        while(System.currentTimeMillis() <= revokedAt)
+            Thread.onSpinWait();
+    }
+
+    public boolean isRevoked(JwtToken jwtToken) {
+        if(Objects.nonNull(revokedTokens.getIfPresent(jwtToken.signature())))
+            return true;
+        Long revokedAt = revokedUsers.getIfPresent(jwtToken.subject());
+        if(Objects.isNull(revokedAt))
+            return false;
+        Date issuedAt = jwtToken.issuedAt();
+        return Objects.isNull(issuedAt) || issuedAt.getTime() <= revokedAt;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.uneeddevs.finances.security.exception;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+public class PasswordEncoderSaturatedException extends InternalAuthenticationServiceException {
+    public PasswordEncoderSaturatedException(String msg) {
+        super(msg);
+    }
+}
@@ -1,5 +1,8 @@
 package com.uneeddevs.finances.security.exception.handler;
 
+import com.uneeddevs.finances.security.exception.PasswordEncoderSaturatedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 
@@ -14,14 +17,26 @@ public class JwtAuthenticationFailureHandler implements AuthenticationFailureHan
 	@Override
 	public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
 										AuthenticationException exception) throws IOException, ServletException {
+		if(exception instanceof PasswordEncoderSaturatedException) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.setContentType("application/json");
+			response.getWriter().append(json(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage()));
+			return;
+		}
 		response.setStatus(401);
 		response.setContentType("application/json");
 		response.getWriter().append(json());
 	}
 
 	private String json() {
+		return json(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+	}
+
+	private String json(HttpStatus status, String message) {
 		LocalDateTime date = LocalDateTime.now();
-		return "{\"time\": " + date + ", " + "\"status\": 401, " + "\"error\": \"Unauthorized\", "
-				+ "\"message\": \"Invalid username or password\", " + "\"path\": \"/login\"}";
+		return "{\"time\": \"" + date + "\", " + "\"status\": " + status.value() + ", "
+				+ "\"error\": \"" + status.getReasonPhrase() + "\", "
+				+ "\"message\": \"" + message + "\", " + "\"path\": \"/login\"}";
 	}
 }
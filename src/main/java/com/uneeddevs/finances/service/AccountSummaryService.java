@@ -0,0 +1,14 @@
+package com.uneeddevs.finances.service;
+
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface AccountSummaryService {
+
+    void apply(UUID bankAccountId, LocalDate date, BigDecimal inputTotal, BigDecimal outputTotal, long movementCount);
+    AccountSummaryDTO summarize(UUID bankAccountId, LocalDate start, LocalDate end);
+
+}
@@ -1,17 +1,20 @@
 package com.uneeddevs.finances.service;
 
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
 import com.uneeddevs.finances.model.BankAccount;
-import com.uneeddevs.finances.model.User;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
 public interface BankAccountService {
 
-    List<BankAccount> findByUser(User user);
+    List<BankAccountResponseDTO> findByUser(UUID userId);
     BankAccount save(BankAccount bankAccount);
     BankAccount update(BankAccount bankAccount);
     BankAccount findById(UUID id);
+    long findVersion(UUID id);
     boolean deleteById(UUID id);
+    void addBalance(UUID id, BigDecimal value);
 
 }
@@ -0,0 +1,11 @@
+package com.uneeddevs.finances.service;
+
+import com.uneeddevs.finances.dto.CacheRegionStatisticsDTO;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+
+    List<CacheRegionStatisticsDTO> findRegionStatistics();
+
+}
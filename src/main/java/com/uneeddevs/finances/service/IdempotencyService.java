@@ -0,0 +1,8 @@
+package com.uneeddevs.finances.service;
+
+import com.uneeddevs.finances.model.Movement;
+
+public interface IdempotencyService {
+
+    Movement save(String idempotencyKey, Movement movement);
+}
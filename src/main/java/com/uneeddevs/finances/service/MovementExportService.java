@@ -0,0 +1,13 @@
+package com.uneeddevs.finances.service;
+
+import com.uneeddevs.finances.enums.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface MovementExportService {
+
+    StreamingResponseBody export(UUID bankAccountId, LocalDateTime start, LocalDateTime end, ExportFormat exportFormat);
+
+}
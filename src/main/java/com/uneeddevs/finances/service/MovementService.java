@@ -1,7 +1,15 @@
 package com.uneeddevs.finances.service;
 
+import com.uneeddevs.finances.dto.MovementBatchResultDTO;
+import com.uneeddevs.finances.dto.MovementCursorDTO;
+import com.uneeddevs.finances.dto.MovementKeysetPageDTO;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.MovementTransferResponseDTO;
 import com.uneeddevs.finances.model.Movement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -9,8 +17,13 @@ import java.util.UUID;
 public interface MovementService {
 
     Movement save(Movement movement);
+    List<MovementBatchResultDTO> saveAll(List<Movement> movements);
+    MovementTransferResponseDTO transfer(UUID sourceBankAccountId, UUID targetBankAccountId, BigDecimal value);
     Movement findById(UUID id);
-    List<Movement> findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId);
+    Page<MovementResponseDTO> findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId, Pageable pageable);
+    MovementKeysetPageDTO findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId,
+                                                     MovementCursorDTO cursor, int size);
+    long findVersion(UUID bankAccountId);
     void deleteMovementById(UUID id);
 
 }
@@ -1,17 +1,24 @@
 package com.uneeddevs.finances.service;
 
+import com.uneeddevs.finances.dto.UserCursorDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
+import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
     User insert(User user);
     User findById(UUID uuid);
+    LocalDateTime findUpdateDate(UUID uuid);
     User findByEmail(String username);
-    Page<User> findPage(Pageable pageable);
+    Page<UserResponseDTO> findPage(Pageable pageable);
+    UserKeysetPageDTO findKeysetPage(UserCursorDTO cursor, int size);
     User update(User user);
 }
@@ -0,0 +1,132 @@
+package com.uneeddevs.finances.service.engine;
+
+import com.uneeddevs.finances.model.Movement;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class BalanceWriteEngine {
+
+    private static final String STOPPED_TEXT = "Balance write engine is stopped";
+    private static final long POLL_MILLIS = 100;
+
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+    private final BatchWriter writer;
+    private final List<BlockingQueue<Pending>> queues;
+    private final List<Thread> writers;
+    private volatile boolean running = true;
+
+    public BalanceWriteEngine(int shards, int maxBatchSize, int queueCapacity, long offerTimeoutMillis, BatchWriter writer) {
+        if(shards < 1 || maxBatchSize < 1 || queueCapacity < 1 || offerTimeoutMillis < 0)
+            throw new IllegalArgumentException("Shards, batch size and queue capacity have to be positive, offer timeout cannot be negative");
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.writer = writer;
+        this.queues = new ArrayList<>(shards);
+        this.writers = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>(queueCapacity);
+            final Thread thread = new Thread(() -> run(queue), "balance-writer-" + (i + 1));
+            thread.setDaemon(true);
+            queues.add(queue);
+            writers.add(thread);
+        }
+        writers.forEach(Thread::start);
+    }
+
+    // re-checked after enqueuing: a shutdown that drained the queues in between would leave the future pending forever
+    public CompletableFuture<Movement> submit(Movement movement) {
+        final Pending pending = new Pending(movement, new CompletableFuture<>());
+        if(!running)
+            throw new IllegalStateException(STOPPED_TEXT);
+        final BlockingQueue<Pending> queue = queues.get(Math.floorMod(movement.getBankAccountId().hashCode(), queues.size()));
+        try {
+            if(!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS))
+                throw new BalanceWriteEngineSaturatedException("Balance write engine is saturated, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(STOPPED_TEXT);
+        }
+        if(!running && queue.remove(pending))
+            pending.result().completeExceptionally(new IllegalStateException(STOPPED_TEXT));
+        return pending.result();
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Thread thread : writers) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        queues.forEach(queue -> {
+            final List<Pending> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(pending -> pending.result().completeExceptionally(new IllegalStateException(STOPPED_TEXT)));
+        });
+    }
+
+    private void run(BlockingQueue<Pending> queue) {
+        final List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            final Pending first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if(first == null)
+                continue;
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            final Map<UUID, List<Pending>> byAccount = new LinkedHashMap<>();
+            batch.forEach(pending -> byAccount
+                    .computeIfAbsent(pending.movement().getBankAccountId(), id -> new ArrayList<>())
+                    .add(pending));
+            byAccount.forEach(this::write);
+            batch.clear();
+        }
+    }
+
+    // only the balance guard is split: it rejects the group before any movement is inserted, so the same entities can be
+    // retried one at a time, in arrival order. Any other failure may come after the insert and fails the whole group
+    private void write(UUID bankAccountId, List<Pending> pending) {
+        try {
+            writer.write(bankAccountId, pending.stream().map(Pending::movement).toList());
+            pending.forEach(item -> item.result().complete(item.movement()));
+        } catch (IllegalArgumentException e) {
+            if(pending.size() == 1) {
+                pending.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.info("Coalesced write of {} movements on account {} failed, writing them one by one: {}",
+                    pending.size(), bankAccountId, e.getMessage());
+            pending.forEach(item -> write(bankAccountId, List.of(item)));
+        } catch (RuntimeException e) {
+            log.warn("Coalesced write of {} movements on account {} failed: {}", pending.size(), bankAccountId, e.getMessage());
+            pending.forEach(item -> item.result().completeExceptionally(e));
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        void write(UUID bankAccountId, List<Movement> movements);
+    }
+
+    private record Pending(Movement movement, CompletableFuture<Movement> result) {
+    }
+}
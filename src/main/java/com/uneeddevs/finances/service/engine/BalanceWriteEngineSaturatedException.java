@@ -0,0 +1,7 @@
+package com.uneeddevs.finances.service.engine;
+
+public class BalanceWriteEngineSaturatedException extends RuntimeException {
+    public BalanceWriteEngineSaturatedException(String msg) {
+        super(msg);
+    }
+}
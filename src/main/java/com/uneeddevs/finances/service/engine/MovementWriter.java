@@ -0,0 +1,118 @@
+package com.uneeddevs.finances.service.engine;
+
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.BankAccountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Applies movements to the database: the guarded balance update, the movement rows and the daily summaries.
+ * Callers are responsible for the ownership checks and, except for {@link #write}, for the transaction.
+ */
+@Component
+public class MovementWriter implements BalanceWriteEngine.BatchWriter {
+
+    private static final String BALANCE_CONFLICTS = "movement.balance.conflicts";
+
+    private final MovementRepository movementRepository;
+    private final BankAccountService bankAccountService;
+    private final AccountSummaryService accountSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter insufficientBalanceConflicts;
+    private final Counter concurrencyConflicts;
+    private final DistributionSummary coalescedWrites;
+
+    public MovementWriter(MovementRepository movementRepository,
+                          BankAccountService bankAccountService,
+                          AccountSummaryService accountSummaryService,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry) {
+        this.movementRepository = movementRepository;
+        this.bankAccountService = bankAccountService;
+        this.accountSummaryService = accountSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.insufficientBalanceConflicts = Counter.builder(BALANCE_CONFLICTS)
+                .description("Balance updates rejected by the database")
+                .tag("reason", "insufficient-balance")
+                .register(meterRegistry);
+        this.concurrencyConflicts = Counter.builder(BALANCE_CONFLICTS)
+                .description("Balance updates rejected by the database")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+        this.coalescedWrites = DistributionSummary.builder("movement.write.coalesced")
+                .description("Movements written by a single balance update of the write engine")
+                .register(meterRegistry);
+    }
+
+    // runs on a write engine thread: ownership was checked by the caller, the security context is not available here
+    @Override
+    public void write(UUID bankAccountId, List<Movement> movements) {
+        transactionTemplate.executeWithoutResult(status -> persist(bankAccountId, movements));
+        coalescedWrites.record(movements.size());
+    }
+
+    public void persist(UUID bankAccountId, List<Movement> movements) {
+        final BigDecimal balanceChange = movements.stream()
+                .map(this::balanceChange)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        addBalance(bankAccountId, balanceChange);
+        movementRepository.saveAll(movements);
+        applySummary(bankAccountId, movements, 1);
+    }
+
+    public void addBalance(UUID bankAccountId, BigDecimal balanceChange) {
+        try {
+            bankAccountService.addBalance(bankAccountId, balanceChange);
+        } catch (IllegalArgumentException e) {
+            insufficientBalanceConflicts.increment();
+            throw e;
+        } catch (ConcurrencyFailureException e) {
+            concurrencyConflicts.increment();
+            throw e;
+        }
+    }
+
+    public void applySummary(UUID bankAccountId, List<Movement> movements, int sign) {
+        final Map<LocalDate, List<Movement>> movementsByDate = new TreeMap<>();
+        movements.forEach(movement -> movementsByDate
+                .computeIfAbsent(movement.getMovementDate().toLocalDate(), date -> new ArrayList<>())
+                .add(movement));
+        movementsByDate.forEach((date, dateMovements) -> {
+            BigDecimal inputTotal = BigDecimal.ZERO;
+            BigDecimal outputTotal = BigDecimal.ZERO;
+            for (Movement movement : dateMovements) {
+                if(movement.getMovementType() == MovementType.INPUT)
+                    inputTotal = inputTotal.add(movement.getValue());
+                else
+                    outputTotal = outputTotal.add(movement.getValue());
+            }
+            if(sign < 0) {
+                inputTotal = inputTotal.negate();
+                outputTotal = outputTotal.negate();
+            }
+            accountSummaryService.apply(bankAccountId, date, inputTotal, outputTotal, (long) sign * dateMovements.size());
+        });
+    }
+
+    public BigDecimal balanceChange(Movement movement) {
+        final BigDecimal movementValue = movement.getValue();
+        if(movement.getMovementType() == MovementType.INPUT)
+            return movementValue;
+        return movementValue.negate();
+    }
+}
@@ -0,0 +1,70 @@
+package com.uneeddevs.finances.service.impl;
+
+import com.uneeddevs.finances.dto.AccountDailySummaryDTO;
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+import com.uneeddevs.finances.model.AccountDailySummary;
+import com.uneeddevs.finances.model.AccountDailySummaryId;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.BankAccountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountSummaryServiceImpl implements AccountSummaryService {
+
+    private final AccountDailySummaryRepository accountDailySummaryRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BankAccountService bankAccountService;
+
+    // runs after the balance update of the same transaction, whose row lock serializes inserts of a new day
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(UUID bankAccountId, LocalDate date, BigDecimal inputTotal, BigDecimal outputTotal, long movementCount) {
+        log.info("Applying {} movements to summary of account {} on {}", movementCount, bankAccountId, date);
+        final BigDecimal balanceChange = inputTotal.subtract(outputTotal);
+        if(accountDailySummaryRepository.addToDay(bankAccountId, date, inputTotal, outputTotal, movementCount) == 0) {
+            final BigDecimal closingBalance = bankAccountRepository.findBalanceById(bankAccountId)
+                    .subtract(accountDailySummaryRepository.sumBalanceChangeAfter(bankAccountId, date));
+            accountDailySummaryRepository.save(new AccountDailySummary(new AccountDailySummaryId(bankAccountId, date),
+                    inputTotal, outputTotal, movementCount, closingBalance));
+        }
+        accountDailySummaryRepository.addToClosingBalanceAfter(bankAccountId, date, balanceChange);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountSummaryDTO summarize(UUID bankAccountId, LocalDate start, LocalDate end) {
+        log.info("Performing summary of account {} between {} and {}", bankAccountId, start, end);
+        if(start.isAfter(end))
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        final BigDecimal balance = bankAccountService.findById(bankAccountId).getBalance();
+        final List<AccountDailySummaryDTO> days = accountDailySummaryRepository.findByPeriod(bankAccountId, start, end)
+                .stream()
+                .map(AccountDailySummary::toAccountDailySummaryDTO)
+                .toList();
+        BigDecimal inputTotal = BigDecimal.ZERO;
+        BigDecimal outputTotal = BigDecimal.ZERO;
+        long movementCount = 0;
+        for (AccountDailySummaryDTO day : days) {
+            inputTotal = inputTotal.add(day.inputTotal());
+            outputTotal = outputTotal.add(day.outputTotal());
+            movementCount += day.movementCount();
+        }
+        final BigDecimal closingBalance = balance.subtract(accountDailySummaryRepository.sumBalanceChangeAfter(bankAccountId, end));
+        final BigDecimal openingBalance = closingBalance.subtract(inputTotal).add(outputTotal);
+        return new AccountSummaryDTO(bankAccountId, start, end, openingBalance, inputTotal, outputTotal,
+                movementCount, closingBalance, days);
+    }
+}
@@ -1,39 +1,83 @@
 package com.uneeddevs.finances.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.uneeddevs.finances.constants.Messages;
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
 import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.model.BankAccount;
-import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
 import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.BankAccountService;
-import com.uneeddevs.finances.service.UserService;
 import com.uneeddevs.finances.util.UserUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class BankAccountServiceImpl implements BankAccountService {
 
     private final BankAccountRepository bankAccountRepository;
-    private final UserService userService;
+    private final MovementRepository movementRepository;
+    private final AccountDailySummaryRepository accountDailySummaryRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<UUID, List<BankAccountResponseDTO>> accountsByUser;
 
+    public BankAccountServiceImpl(BankAccountRepository bankAccountRepository,
+                                  MovementRepository movementRepository,
+                                  AccountDailySummaryRepository accountDailySummaryRepository,
+                                  OwnershipResolver ownershipResolver,
+                                  EntityManagerFactory entityManagerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${bank-account.user-cache.maximum-size}") Long maximumSize,
+                                  @Value("${bank-account.user-cache.ttl}") Long ttl) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.movementRepository = movementRepository;
+        this.accountDailySummaryRepository = accountDailySummaryRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.entityManagerFactory = entityManagerFactory;
+        this.accountsByUser = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accountsByUser, "bank-account.user-accounts");
+    }
+
+    // loaded from the primary: a lagging replica read would stay cached until the entry expires
     @Override
-    public List<BankAccount> findByUser(User user) {
-        final UUID userId = user.getId();
+    public List<BankAccountResponseDTO> findByUser(UUID userId) {
         if(!UserUtil.hasAuthority(ProfileRole.ADMIN) &&
                 !userId.equals(UserUtil.authenticatedUUID()))
             throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
 
-        User userResponse = userService.findById(userId);
-        List<BankAccount> bankAccounts = bankAccountRepository.findByUser(userResponse);
+        List<BankAccountResponseDTO> bankAccounts = accountsByUser.get(userId,
+                id -> List.copyOf(bankAccountRepository.findResponsesByUserId(id)));
         if(!bankAccounts.isEmpty())
             return  bankAccounts;
         throw new NoResultException(String.format("No bank accounts for user %s", userId));
@@ -42,44 +86,119 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     public BankAccount save(BankAccount bankAccount) {
         log.info("Performing persistent bank account {}", bankAccount);
-        return bankAccountRepository.save(bankAccount);
+        final BankAccount savedBankAccount = bankAccountRepository.save(bankAccount);
+        evictAccounts(bankAccount);
+        return savedBankAccount;
     }
 
+    // only the name is written, so a balance update committed meanwhile is never overwritten with a stale value
     @Override
+    @Transactional
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#bankAccount.id)")
     public BankAccount update(BankAccount bankAccount) {
         log.info("Perform bank account update: {}", bankAccount);
-        BankAccount oldAccount = findById(bankAccount.getId());
-        updateInfo(oldAccount, bankAccount);
-        return save(oldAccount);
-    }
-
-    private void updateInfo(BankAccount oldAccount, BankAccount newAccount) {
-        oldAccount.setName(newAccount.getName());
+        if(bankAccountRepository.rename(bankAccount.getId(), bankAccount.getName()) == 0)
+            throw noBankAccount(bankAccount.getId());
+        lockCachedAccount(bankAccount.getId());
+        final BankAccount updatedAccount = findAccount(bankAccount.getId());
+        evictAccounts(updatedAccount);
+        return updatedAccount;
     }
 
     @Override
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#id)")
     public BankAccount findById(UUID id) {
         log.info("Searching bank account by id: {}", id);
-        final BankAccount bankAccount = bankAccountRepository.findById(id)
-                .orElseThrow(() -> {
-                    String message = String.format("No bank account with id %s", id);
-                    log.info(message);
-                    if(UserUtil.hasAuthority(ProfileRole.ADMIN))
-                        throw new NoResultException(message);
-                    return new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
-                });
-        final UUID userId = bankAccount.getUserId();
-        if(!UserUtil.hasAuthority(ProfileRole.ADMIN) &&
-                !userId.equals(UserUtil.authenticatedUUID()))
-            throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
-        return bankAccount;
+        return findAccount(id);
     }
 
+    // single column lookup backing the ETag of the account, bumped with every balance or name change
     @Override
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#id)")
+    public long findVersion(UUID id) {
+        return bankAccountRepository.findVersionById(id)
+                .orElseThrow(() -> noBankAccount(id));
+    }
+
+    private BankAccount findAccount(UUID id) {
+        return bankAccountRepository.findById(id)
+                .orElseThrow(() -> noBankAccount(id));
+    }
+
+    private NoResultException noBankAccount(UUID id) {
+        String message = String.format("No bank account with id %s", id);
+        log.info(message);
+        return new NoResultException(message);
+    }
+
+    // movements are the account history and are never removed with it; daily summaries are derived and go along
+    @Override
+    @Transactional
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#id)")
     public boolean deleteById(UUID id) {
         log.info("Performing deleting bank account by id {}", id);
-        BankAccount bankAccount = findById(id);
+        BankAccount bankAccount = findAccount(id);
+        if(movementRepository.existsByBankAccountId(id))
+            throw new IllegalArgumentException("Bank account with movements cannot be deleted");
+        accountDailySummaryRepository.deleteByBankAccountId(id);
         bankAccountRepository.delete(bankAccount);
+        ownershipResolver.evict(id);
+        evictAccounts(bankAccount);
         return true;
     }
+
+    @Override
+    @Transactional
+    public void addBalance(UUID id, BigDecimal value) {
+        log.info("Performing balance update of {} on bank account {}", value, id);
+        if(bankAccountRepository.addBalance(id, value) == 0)
+            throw new IllegalArgumentException("Value to subtract cannot be greater than balance");
+        lockCachedAccount(id);
+        ownershipResolver.accountOwner(id).ifPresent(this::evictAccounts);
+    }
+
+    private void evictAccounts(BankAccount bankAccount) {
+        if(Objects.nonNull(bankAccount.getUser()))
+            evictAccounts(bankAccount.getUserId());
+    }
+
+    private void evictAccounts(UUID userId) {
+        evictNowAndAfterCompletion(() -> accountsByUser.invalidate(userId));
+    }
+
+    // the native balance and name updates leave the second-level cache alone, so the updated account is soft locked
+    // the way an entity update does: reads racing the transaction cannot cache it until a transaction started after
+    // the commit loads it again, and the lock is released on rollback too
+    private void lockCachedAccount(UUID id) {
+        final EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if(Objects.isNull(entityManager)) {
+            entityManagerFactory.getCache().evict(BankAccount.class, id);
+            return;
+        }
+        final SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        final EntityPersister persister = session.getFactory().getMetamodel().entityPersister(BankAccount.class);
+        if(!persister.canWriteToCache())
+            return;
+        final EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        final Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        final SoftLock lock = cacheAccess.lockItem(session, key, null);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cacheAccess.unlockItem(session, key, lock);
+            }
+        });
+    }
+
+    // evicted again after completion so a read racing the transaction cannot cache the uncommitted state
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if(TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+    }
 }
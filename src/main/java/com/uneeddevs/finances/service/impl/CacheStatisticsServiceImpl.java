@@ -0,0 +1,42 @@
+package com.uneeddevs.finances.service.impl;
+
+import com.uneeddevs.finances.dto.CacheRegionStatisticsDTO;
+import com.uneeddevs.finances.service.CacheStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public List<CacheRegionStatisticsDTO> findRegionStatistics() {
+        log.info("Collecting second-level cache statistics, enabled: {}", statistics.isStatisticsEnabled());
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toCacheRegionStatisticsDTO(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private CacheRegionStatisticsDTO toCacheRegionStatisticsDTO(String region, CacheRegionStatistics regionStatistics) {
+        if(Objects.isNull(regionStatistics))
+            return null;
+        return new CacheRegionStatisticsDTO(region, regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory());
+    }
+}
@@ -0,0 +1,153 @@
+package com.uneeddevs.finances.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uneeddevs.finances.model.IdempotencyRecord;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.IdempotencyRecordRepository;
+import com.uneeddevs.finances.service.IdempotencyService;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.util.UserUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.uneeddevs.finances.util.CheckUtils.requireNotBlank;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final String KEY_REUSED_MESSAGE = "Idempotency key was already used for a different request";
+
+    private final MovementService movementService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Cache<String, IdempotencyRecord> records;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(MovementService movementService,
+                                  IdempotencyRecordRepository idempotencyRecordRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${idempotency.maximum-size}") Long maximumSize,
+                                  @Value("${idempotency.ttl}") Long ttl,
+                                  @Value("${idempotency.persistent}") boolean persistent) {
+        this.movementService = movementService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = Duration.ofMillis(ttl);
+        this.persistent = persistent;
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(this.ttl)
+                .build();
+    }
+
+    @Override
+    public Movement save(String idempotencyKey, Movement movement) {
+        requireNotBlank(idempotencyKey, "Idempotency key cannot be blank");
+        if(idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException(String.format("Idempotency key cannot be longer than %d", MAX_KEY_LENGTH));
+        final String key = UserUtil.authenticatedUUID() + ":" + idempotencyKey;
+        final String fingerprint = fingerprint(movement);
+
+        final Optional<Movement> replayed = replay(key, fingerprint);
+        if(replayed.isPresent())
+            return replayed.get();
+
+        final InFlight execution = new InFlight(fingerprint, new CompletableFuture<>());
+        final InFlight running = inFlight.putIfAbsent(key, execution);
+        if(Objects.nonNull(running))
+            return await(key, fingerprint, running);
+        try {
+            final Movement saved = replay(key, fingerprint).orElseGet(() -> execute(key, fingerprint, movement));
+            execution.result().complete(saved);
+            return saved;
+        } catch (RuntimeException e) {
+            execution.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    private Movement execute(String key, String fingerprint, Movement movement) {
+        log.info("Performing idempotent movement save for key {}", key);
+        final Movement saved;
+        try {
+            saved = !persistent ? movementService.save(movement) : transactionTemplate.execute(status -> {
+                final Movement result = movementService.save(movement);
+                idempotencyRecordRepository.deleteExpired(key, LocalDateTime.now().minus(ttl));
+                idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(key, fingerprint, result.getId()));
+                return result;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Idempotency key {} was completed concurrently, replaying", key);
+            return replay(key, fingerprint).orElseThrow(() -> e);
+        }
+        records.put(key, new IdempotencyRecord(key, fingerprint, Objects.requireNonNull(saved).getId()));
+        return saved;
+    }
+
+    private Optional<Movement> replay(String key, String fingerprint) {
+        IdempotencyRecord idempotencyRecord = records.getIfPresent(key);
+        if(Objects.isNull(idempotencyRecord) && persistent) {
+            idempotencyRecord = idempotencyRecordRepository
+                    .findByIdempotencyKeyAndCreatedAtAfter(key, LocalDateTime.now().minus(ttl))
+                    .orElse(null);
+            if(Objects.nonNull(idempotencyRecord))
+                records.put(key, idempotencyRecord);
+        }
+        if(Objects.isNull(idempotencyRecord))
+            return Optional.empty();
+        if(!idempotencyRecord.getFingerprint().equals(fingerprint))
+            throw new IllegalArgumentException(KEY_REUSED_MESSAGE);
+        log.info("Replaying movement {} for idempotency key {}", idempotencyRecord.getMovementId(), key);
+        return Optional.of(movementService.findById(idempotencyRecord.getMovementId()));
+    }
+
+    private Movement await(String key, String fingerprint, InFlight running) {
+        if(!running.fingerprint().equals(fingerprint))
+            throw new IllegalArgumentException(KEY_REUSED_MESSAGE);
+        log.info("Waiting for in-flight movement save of idempotency key {}", key);
+        try {
+            return running.result().join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval}")
+    public void purgeExpired() {
+        if(!persistent)
+            return;
+        final Integer purged = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now().minus(ttl)));
+        log.info("Purged {} expired idempotency records", purged);
+    }
+
+    private static String fingerprint(Movement movement) {
+        return movement.getMovementType() + "|" + movement.getValue().stripTrailingZeros().toPlainString()
+                + "|" + movement.getBankAccountId();
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Movement> result) {
+    }
+}
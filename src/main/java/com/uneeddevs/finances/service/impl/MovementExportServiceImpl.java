@@ -0,0 +1,103 @@
+package com.uneeddevs.finances.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.enums.ExportFormat;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.MovementExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class MovementExportServiceImpl implements MovementExportService {
+
+    private static final String CSV_HEADER = "id,movementType,value,movementDate";
+
+    private final MovementRepository movementRepository;
+    private final BankAccountService bankAccountService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public MovementExportServiceImpl(MovementRepository movementRepository,
+                                     BankAccountService bankAccountService,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.movementRepository = movementRepository;
+        this.bankAccountService = bankAccountService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody export(UUID bankAccountId, LocalDateTime start, LocalDateTime end, ExportFormat exportFormat) {
+        log.info("Performing {} export of account {} movements between {} and {}", exportFormat, bankAccountId, start, end);
+        final BankAccount bankAccount = bankAccountService.findById(bankAccountId);
+        return outputStream -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Movement> movements = movementRepository.streamByPeriodAndBankAccount(start, end, bankAccount)) {
+                final Iterator<Movement> iterator = movements.iterator();
+                if (exportFormat == ExportFormat.CSV)
+                    writeCsv(iterator, outputStream);
+                else
+                    writeNdjson(iterator, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<Movement> movements, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (movements.hasNext()) {
+                generator.writeObject(next(movements));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Movement> movements, OutputStream outputStream) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (movements.hasNext()) {
+            final MovementResponseDTO movement = next(movements);
+            writer.write(String.join(",", String.valueOf(movement.id()), String.valueOf(movement.movementType()),
+                    movement.value().toPlainString(), String.valueOf(movement.movementDate())));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private MovementResponseDTO next(Iterator<Movement> movements) {
+        final Movement movement = movements.next();
+        final MovementResponseDTO movementResponseDTO = movement.toMovementResponseDTO();
+        entityManager.detach(movement);
+        return movementResponseDTO;
+    }
+
+}
@@ -1,100 +1,240 @@
 package com.uneeddevs.finances.service.impl;
 
-import com.uneeddevs.finances.constants.Messages;
+import com.uneeddevs.finances.dto.MovementBatchResultDTO;
+import com.uneeddevs.finances.dto.MovementCursorDTO;
+import com.uneeddevs.finances.dto.MovementKeysetPageDTO;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.MovementTransferResponseDTO;
 import com.uneeddevs.finances.enums.MovementType;
-import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.model.BankAccount;
 import com.uneeddevs.finances.model.Movement;
 import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.BankAccountService;
 import com.uneeddevs.finances.service.MovementService;
-import com.uneeddevs.finances.util.UserUtil;
-import lombok.RequiredArgsConstructor;
+import com.uneeddevs.finances.service.engine.BalanceWriteEngine;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.constants.Messages;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.NoResultException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MovementServiceImpl implements MovementService {
 
+    private static final String STORAGE_FAILURE_MESSAGE = "Movements could not be stored, retry them";
+
     private final MovementRepository movementRepository;
     private final BankAccountService bankAccountService;
+    private final OwnershipResolver ownershipResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final MovementWriter movementWriter;
+    private final BalanceWriteEngine balanceWriteEngine;
+
+    public MovementServiceImpl(MovementRepository movementRepository,
+                               BankAccountService bankAccountService,
+                               OwnershipResolver ownershipResolver,
+                               TransactionTemplate transactionTemplate,
+                               MovementWriter movementWriter,
+                               Optional<BalanceWriteEngine> balanceWriteEngine) {
+        this.movementRepository = movementRepository;
+        this.bankAccountService = bankAccountService;
+        this.ownershipResolver = ownershipResolver;
+        this.transactionTemplate = transactionTemplate;
+        this.movementWriter = movementWriter;
+        this.balanceWriteEngine = balanceWriteEngine.orElse(null);
+    }
 
+    // movements saved inside a caller transaction (e.g. with the idempotency record) bypass the engine to commit together
     @Override
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#movement?.bankAccountId)")
     public Movement save(Movement movement) {
         final UUID bankAccountId = movement.getBankAccountId();
-        log.info("Performing account search for id: {}", bankAccountId);
-        BankAccount bankAccount = bankAccountService.findById(bankAccountId);
-        final BigDecimal movementValue = movement.getValue();
-        log.info("Validating movement typ and perform balance update");
-        if (movement.getMovementType() == MovementType.INPUT)
-            bankAccount.addBalance(movementValue);
-        else
-            bankAccount.subtractBalance(movementValue);
-
-        log.info("Performing movement save");
-        final Movement persistedMovement = movementRepository.save(movement);
-        saveBankAccount(bankAccount);
-        return persistedMovement;
+        log.info("Performing movement save on account {}", bankAccountId);
+        if(Objects.isNull(balanceWriteEngine) || TransactionSynchronizationManager.isActualTransactionActive())
+            return transactionTemplate.execute(status -> {
+                requireAccount(bankAccountId);
+                movementWriter.addBalance(bankAccountId, movementWriter.balanceChange(movement));
+                final Movement savedMovement = movementRepository.save(movement);
+                movementWriter.applySummary(bankAccountId, List.of(savedMovement), 1);
+                return savedMovement;
+            });
+        requireAccount(bankAccountId);
+        try {
+            return balanceWriteEngine.submit(movement).join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MovementBatchResultDTO> saveAll(List<Movement> movements) {
+        final Map<UUID, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < movements.size(); i++)
+            indexesByAccount.computeIfAbsent(movements.get(i).getBankAccountId(), id -> new ArrayList<>()).add(i);
+
+        log.info("Performing batch save of {} movements for {} accounts", movements.size(), indexesByAccount.size());
+        final List<MovementBatchResultDTO> results = new ArrayList<>(movements.size());
+        indexesByAccount.forEach((bankAccountId, indexes) -> {
+            final List<Movement> accountMovements = indexes.stream().map(movements::get).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveAll(bankAccountId, accountMovements));
+                for (int i = 0; i < indexes.size(); i++)
+                    results.add(MovementBatchResultDTO.created(indexes.get(i), accountMovements.get(i).toMovementResponseDTO()));
+            } catch (IllegalArgumentException | NoResultException | AuthenticationFailException | AccessDeniedException e) {
+                log.warn("Rejecting {} movements for account {}: {}", indexes.size(), bankAccountId, e.getMessage());
+                indexes.forEach(index -> results.add(MovementBatchResultDTO.rejected(index, e.getMessage())));
+            } catch (DataAccessException | TransactionException e) {
+                // lock timeouts, deadlocks or constraint violations only roll back this account, the rest of the batch goes on
+                log.warn("Rejecting {} movements for account {} after storage failure", indexes.size(), bankAccountId, e);
+                indexes.forEach(index -> results.add(MovementBatchResultDTO.rejected(index, STORAGE_FAILURE_MESSAGE)));
+            }
+        });
+        results.sort(Comparator.comparingInt(MovementBatchResultDTO::index));
+        return results;
+    }
+
+    // rows are updated in UUID order, so opposite transfers between the same accounts never hold one lock each
+    @Override
+    @Transactional
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#sourceBankAccountId) and @ownershipResolver.canAccessAccount(#targetBankAccountId)")
+    public MovementTransferResponseDTO transfer(UUID sourceBankAccountId, UUID targetBankAccountId, BigDecimal value) {
+        log.info("Performing transfer of {} from account {} to account {}", value, sourceBankAccountId, targetBankAccountId);
+        if(sourceBankAccountId.equals(targetBankAccountId))
+            throw new IllegalArgumentException("Source and target bank accounts have to be different");
+        final UUID transferId = UUID.randomUUID();
+        final Movement output = new Movement(MovementType.OUTPUT, value, new BankAccount(sourceBankAccountId, "transfer"), transferId);
+        final Movement input = new Movement(MovementType.INPUT, value, new BankAccount(targetBankAccountId, "transfer"), transferId);
+        final List<Movement> ordered = sourceBankAccountId.compareTo(targetBankAccountId) < 0
+                ? List.of(output, input)
+                : List.of(input, output);
+        for (Movement movement : ordered)
+            addTransferBalance(movement.getBankAccountId(), movementWriter.balanceChange(movement));
+        movementRepository.saveAll(ordered);
+        for (Movement movement : ordered)
+            movementWriter.applySummary(movement.getBankAccountId(), List.of(movement), 1);
+        return new MovementTransferResponseDTO(transferId, output.toMovementResponseDTO(), input.toMovementResponseDTO());
+    }
+
+    private void addTransferBalance(UUID bankAccountId, BigDecimal balanceChange) {
+        try {
+            movementWriter.addBalance(bankAccountId, balanceChange);
+        } catch (IllegalArgumentException e) {
+            requireAccount(bankAccountId);
+            throw e;
+        }
+    }
+
+    private void saveAll(UUID bankAccountId, List<Movement> movements) {
+        if(!ownershipResolver.canAccessAccount(bankAccountId))
+            throw new AccessDeniedException(Messages.FORBIDDEN_TEXT);
+        requireAccount(bankAccountId);
+        movementWriter.persist(bankAccountId, movements);
+    }
+
+    // ownership is checked by account id alone; admins pass it for any id, so the 404 comes from the cached owner lookup
+    private void requireAccount(UUID bankAccountId) {
+        if(ownershipResolver.accountOwner(bankAccountId).isEmpty()) {
+            final String message = String.format("No bank account with id %s", bankAccountId);
+            log.warn(message);
+            throw new NoResultException(message);
+        }
     }
 
     @Override
+    @PreAuthorize("@ownershipResolver.canAccessMovement(#id)")
     public Movement findById(UUID id) {
         log.info("Searching movement by id {}", id);
-        final Movement movement = movementRepository.findById(id).orElseThrow(() -> {
+        return findMovement(id);
+    }
+
+    private Movement findMovement(UUID id) {
+        return movementRepository.findById(id).orElseThrow(() -> {
             final String message = String.format("No movement with id %s", id);
             log.warn(message);
-            if (UserUtil.hasAuthority(ProfileRole.ADMIN))
-                return new NoResultException(message);
-            throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
+            return new NoResultException(message);
         });
-        final BankAccount bankAccount = movement.getBankAccount();
-        final UUID userId = bankAccount.getUserId();
-        if(!UserUtil.hasAuthority(ProfileRole.ADMIN) &&
-                !userId.equals(UserUtil.authenticatedUUID()))
-            throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
-        return movement;
     }
 
     @Override
+    @Transactional
+    @PreAuthorize("@ownershipResolver.canAccessMovement(#id)")
     public void deleteMovementById(UUID id) {
         log.info("Performing delete movement by id {}", id);
-        final Movement movement = findById(id);
-        final BankAccount bankAccount = movement.getBankAccount();
-        final BigDecimal movementValue = movement.getValue();
-        if(movement.getMovementType() == MovementType.INPUT)
-            bankAccount.subtractBalance(movementValue);
-        else
-            bankAccount.addBalance(movementValue);
-        saveBankAccount(bankAccount);
+        final Movement movement = findMovement(id);
+        movementWriter.addBalance(movement.getBankAccountId(), movementWriter.balanceChange(movement).negate());
+        movementWriter.applySummary(movement.getBankAccountId(), List.of(movement), -1);
         movementRepository.delete(movement);
     }
 
-    private void saveBankAccount(BankAccount bankAccount) {
-        bankAccountService.save(bankAccount);
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#bankAccountId)")
+    public Page<MovementResponseDTO> findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId, Pageable pageable) {
+        log.info("Performing search movement by account {} between {} and {} on {}", bankAccountId, start, end, pageable);
+        Page<MovementResponseDTO> movements = movementRepository.findResponsesByPeriodAndBankAccount(start, end, bankAccountId, pageable);
+        if(movements.hasContent())
+            return movements;
+        throw noMovements(start, end, bankAccountId);
     }
 
     @Override
-    public List<Movement> findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId) {
-        log.info("Performing search movement by account {} between {} and {}", bankAccountId, start, end);
-        final BankAccount bankAccount = bankAccountService.findById(bankAccountId);
-        final UUID userId = bankAccount.getUserId();
-        if(!UserUtil.hasAuthority(ProfileRole.ADMIN) &&
-                !userId.equals(UserUtil.authenticatedUUID()))
-            throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
-        List<Movement> movements = movementRepository.findByMovementDateBetweenAndBankAccount(start, end, bankAccount);
-        if(!movements.isEmpty())
-            return movements;
+    @Transactional(readOnly = true)
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#bankAccountId)")
+    public MovementKeysetPageDTO findByPeriodAndBankAccount(LocalDateTime start, LocalDateTime end, UUID bankAccountId,
+                                                            MovementCursorDTO cursor, int size) {
+        log.info("Performing keyset search movement by account {} between {} and {} after {}", bankAccountId, start, end, cursor);
+        requireAccount(bankAccountId);
+        final Pageable pageable = PageRequest.of(0, size + 1);
+        final List<MovementResponseDTO> movements = Objects.isNull(cursor)
+                ? movementRepository.findKeysetPage(start, end, bankAccountId, pageable)
+                : movementRepository.findKeysetPageAfter(start, end, bankAccountId, cursor.movementDate(), cursor.id(), pageable);
+        if(movements.isEmpty() && Objects.isNull(cursor))
+            throw noMovements(start, end, bankAccountId);
+        final boolean hasNext = movements.size() > size;
+        final List<MovementResponseDTO> page = hasNext ? movements.subList(0, size) : movements;
+        return new MovementKeysetPageDTO(page,
+                hasNext ? MovementCursorDTO.of(page.get(size - 1)).encode() : null);
+    }
+
+    // every movement written or deleted bumps the account version, so it also versions the movements of the account;
+    // read in a read-only transaction like the searches so the ETag never comes from a fresher source than the page
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("@ownershipResolver.canAccessAccount(#bankAccountId)")
+    public long findVersion(UUID bankAccountId) {
+        return bankAccountService.findVersion(bankAccountId);
+    }
+
+    private NoResultException noMovements(LocalDateTime start, LocalDateTime end, UUID bankAccountId) {
         final String message = String.format("No movements for account %s between %s and %s", bankAccountId, start, end);
         log.warn(message);
-        throw new NoResultException(message);
+        return new NoResultException(message);
     }
 }
@@ -1,10 +1,15 @@
 package com.uneeddevs.finances.service.impl;
 
 import com.uneeddevs.finances.constants.Messages;
+import com.uneeddevs.finances.dto.UserCursorDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
+import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.model.Profile;
 import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.security.PrincipalCache;
+import com.uneeddevs.finances.security.TokenRevocationList;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.ProfileService;
 import com.uneeddevs.finances.service.UserService;
@@ -12,14 +17,23 @@ import com.uneeddevs.finances.util.UserUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,6 +42,9 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final ProfileService profileService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final PasswordEncoder passwordEncoder;
 
     @Override
     public User findByEmail(String username) {
@@ -47,44 +64,88 @@ public class UserServiceImpl implements UserService {
     public User insert(User user) {
         Profile profile = profileService.findById(ProfileRole.USER.getRoleId());
         user.addProfile(profile);
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
         return save(user);
     }
 
     private User save(User user) {
-        String userString = user.toString();
-        log.info("Perform persist user: {}", userString);
+        log.info("Perform persist user: {}", user);
         try {
             return userRepository.save(user);
         } catch (Exception e) {
             log.error("Error on persist user", e);
         }
-        throw new PersistenceException(String.format("Error on persisting user %s", userString));
+        throw new PersistenceException(String.format("Error on persisting user %s", user));
     }
 
     @Override
     public User findById(UUID uuid) {
+        checkAccess(uuid);
+        log.info("Searching user by id {}", uuid);
+        return userRepository.findById(uuid)
+                .orElseThrow(() -> noUser(uuid));
+    }
+
+    // single column lookup backing the ETag of the user
+    @Override
+    public LocalDateTime findUpdateDate(UUID uuid) {
+        checkAccess(uuid);
+        return userRepository.findUpdateDateById(uuid)
+                .orElseThrow(() -> noUser(uuid));
+    }
+
+    private void checkAccess(UUID uuid) {
         if(!UserUtil.hasAuthority(ProfileRole.ADMIN)
                 && !uuid.equals(UserUtil.authenticatedUUID()))
             throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
-        log.info("Searching user by id {}", uuid);
-        return userRepository.findById(uuid)
-                .orElseThrow(() ->{
-                    String message = String.format("No user with UUID %s", uuid);
-                    log.info(message);
-                    return new NoResultException(message);
-                });
+    }
+
+    private NoResultException noUser(UUID uuid) {
+        String message = String.format("No user with UUID %s", uuid);
+        log.info(message);
+        return new NoResultException(message);
     }
 
     @Override
-    public Page<User> findPage(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<UserResponseDTO> findPage(Pageable pageable) {
         log.info("Finding users by page {} ", pageable);
-        Page<User> userPage = userRepository.findAll(pageable);
-        if(!userPage.isEmpty())
+        Page<UserResponseDTO> userPage = userRepository.findResponses(pageable);
+        if(!userPage.isEmpty()) {
+            addProfiles(userPage.getContent());
             return userPage;
+        }
         log.info("No users founded by page {}", pageable);
         throw new NoResultException("No users in page: " + pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public UserKeysetPageDTO findKeysetPage(UserCursorDTO cursor, int size) {
+        log.info("Finding users after {} limited to {}", cursor, size);
+        final Pageable pageable = PageRequest.of(0, size + 1);
+        final List<UserResponseDTO> users = Objects.isNull(cursor)
+                ? userRepository.findKeysetPage(pageable)
+                : userRepository.findKeysetPageAfter(cursor.registerDate(), cursor.id(), pageable);
+        if(users.isEmpty() && Objects.isNull(cursor)) {
+            log.info("No users founded");
+            throw new NoResultException("No users founded");
+        }
+        final boolean hasNext = users.size() > size;
+        final List<UserResponseDTO> page = hasNext ? users.subList(0, size) : users;
+        addProfiles(page);
+        return new UserKeysetPageDTO(page, hasNext ? UserCursorDTO.of(page.get(size - 1)).encode() : null);
+    }
+
+    private void addProfiles(List<UserResponseDTO> users) {
+        if(users.isEmpty())
+            return;
+        final Map<UUID, UserResponseDTO> usersById = users.stream()
+                .collect(Collectors.toMap(UserResponseDTO::getId, Function.identity()));
+        userRepository.findRolesByUserIds(usersById.keySet())
+                .forEach(role -> usersById.get(role.getUserId()).addProfile(role.getRoleName()));
+    }
+
     @Override
     public User update(User user) {
         if(!UserUtil.hasAuthority(ProfileRole.ADMIN)
@@ -92,12 +153,26 @@ public class UserServiceImpl implements UserService {
             throw new AuthenticationFailException(Messages.FORBIDDEN_TEXT);
         User oldUser = findById(user.getId());
         updateOldUserObject(oldUser, user);
-        return save(oldUser);
+        User updatedUser = save(oldUser);
+        principalCache.invalidate(oldUser.getUsername());
+        tokenRevocationList.revokeUser(oldUser.getUsername());
+        return updatedUser;
     }
 
     void updateOldUserObject(User oldUser, User newUser) {
         oldUser.setName(newUser.getName());
-        oldUser.setPassword(newUser.getPassword());
+        oldUser.setPassword(passwordEncoder.encode(newUser.getPassword()));
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        log.info("Rehashing password of user {}", user.getUsername());
+        final User storedUser = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(String.format("No user with email %s", user.getUsername())));
+        storedUser.setPassword(newPassword);
+        final User updatedUser = save(storedUser);
+        principalCache.invalidate(updatedUser.getUsername());
+        return updatedUser;
     }
 
     @Override
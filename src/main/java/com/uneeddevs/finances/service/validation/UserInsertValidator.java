@@ -19,7 +19,7 @@ public class UserInsertValidator implements ConstraintValidator<UserInsert, User
 
     @Override
     public boolean isValid(UserInsertDTO userInsertDTO, ConstraintValidatorContext context) {
-        log.info("Starting validation for new user {}", userInsertDTO);
+        log.info("Starting validation for new user {}", userInsertDTO.getEmail());
         List<FieldMessage> list = new ArrayList<>();
 
         try {
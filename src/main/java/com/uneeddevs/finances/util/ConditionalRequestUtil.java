@@ -0,0 +1,23 @@
+package com.uneeddevs.finances.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Objects;
+
+public class ConditionalRequestUtil {
+
+    private ConditionalRequestUtil(){}
+
+    // the JSON, CBOR and Smile bodies of one version share the tag, so it is weak and shared caches key it by Accept
+    public static boolean checkNotModified(WebRequest webRequest, Object version) {
+        if(webRequest instanceof ServletWebRequest servletWebRequest) {
+            final HttpServletResponse response = servletWebRequest.getResponse();
+            if(Objects.nonNull(response))
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified("W/\"" + version + "\"");
+    }
+}
@@ -0,0 +1,34 @@
+package com.uneeddevs.finances.util;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyRecorder {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long startNanos) {
+        totalNanos.add(System.nanoTime() - startNanos);
+        count.increment();
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public FunctionTimer register(MeterRegistry registry, String name, String description, Tags tags) {
+        return FunctionTimer.builder(name, this, LatencyRecorder::count, LatencyRecorder::totalNanos, TimeUnit.NANOSECONDS)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
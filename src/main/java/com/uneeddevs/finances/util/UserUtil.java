@@ -1,9 +1,11 @@
 package com.uneeddevs.finances.util;
 
 import com.uneeddevs.finances.enums.ProfileRole;
-import com.uneeddevs.finances.model.Profile;
 import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.security.TokenPrincipal;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Objects;
@@ -15,33 +17,52 @@ public class UserUtil {
 
     public static User authenticated() {
         try {
-            return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            final Object principal = authentication().getPrincipal();
+            if(principal instanceof TokenPrincipal tokenPrincipal)
+                return tokenPrincipal.toUser();
+            return (User) principal;
         } catch(Exception e) {
             return null;
         }
     }
 
     public static UUID authenticatedUUID() {
-        final User user = authenticated();
-        if(Objects.isNull(user))
+        final Authentication authentication = authentication();
+        if(Objects.isNull(authentication))
             return null;
-        return user.getId();
+        if(authentication.getPrincipal() instanceof TokenPrincipal tokenPrincipal)
+            return tokenPrincipal.getId();
+        if(authentication.getPrincipal() instanceof User user)
+            return user.getId();
+        return null;
     }
 
     public static boolean hasAuthority(ProfileRole profileRole) {
-        final User user = authenticated();
-        if(Objects.isNull(user))
+        final Authentication authentication = authentication();
+        if(Objects.isNull(authentication) || !isApplicationPrincipal(authentication.getPrincipal()))
             return false;
-        return user.getProfiles()
-                .stream().map(Profile::getRoleName)
+        return authentication.getAuthorities()
+                .stream().map(GrantedAuthority::getAuthority)
                 .anyMatch(role -> role.replace("ROLE_", "").equalsIgnoreCase(profileRole.name()));
     }
 
     public static String authenticatedUsername() {
-        final User user = authenticated();
-        if(Objects.isNull(user))
+        final Authentication authentication = authentication();
+        if(Objects.isNull(authentication))
             return Strings.EMPTY;
-        return user.getEmail();
+        if(authentication.getPrincipal() instanceof TokenPrincipal tokenPrincipal)
+            return tokenPrincipal.getEmail();
+        if(authentication.getPrincipal() instanceof User user)
+            return user.getEmail();
+        return Strings.EMPTY;
+    }
+
+    private static boolean isApplicationPrincipal(Object principal) {
+        return principal instanceof User || principal instanceof TokenPrincipal;
+    }
+
+    private static Authentication authentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
     }
 
 }
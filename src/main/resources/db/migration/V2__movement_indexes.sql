@@ -0,0 +1,3 @@
+create index if not exists tb_movement_bank_account_date_idx on tb_movement (bank_account_id, movement_date, id);
+
+create index if not exists tb_bank_account_user_idx on tb_bank_account (user_id);
@@ -0,0 +1,28 @@
+create table if not exists tb_account_daily_summary (
+                                        bank_account_id uuid NOT NULL,
+                                        summary_date date NOT NULL,
+                                        input_total numeric(19, 2) NOT NULL,
+                                        output_total numeric(19, 2) NOT NULL,
+                                        movement_count int8 NOT NULL,
+                                        closing_balance numeric(19, 2) NOT NULL,
+                                        CONSTRAINT tb_account_daily_summary_pkey PRIMARY KEY (bank_account_id, summary_date),
+                                        CONSTRAINT tb_account_daily_summary_tb_bank_account_fkey FOREIGN KEY (bank_account_id) REFERENCES tb_bank_account(id)
+);
+
+insert into tb_account_daily_summary (bank_account_id, summary_date, input_total, output_total, movement_count, closing_balance)
+select d.bank_account_id,
+       d.summary_date,
+       d.input_total,
+       d.output_total,
+       d.movement_count,
+       b.balance - coalesce(sum(d.input_total - d.output_total)
+           over (partition by d.bank_account_id order by d.summary_date desc
+                 rows between unbounded preceding and 1 preceding), 0)
+from (select m.bank_account_id,
+             cast(m.movement_date as date) as summary_date,
+             coalesce(sum(m.value) filter (where m.movement_type = 1), 0) as input_total,
+             coalesce(sum(m.value) filter (where m.movement_type = 2), 0) as output_total,
+             count(*) as movement_count
+      from tb_movement m
+      group by m.bank_account_id, cast(m.movement_date as date)) d
+         join tb_bank_account b on b.id = d.bank_account_id;
@@ -0,0 +1,5 @@
+update tb_user set register_date = coalesce(update_date, now()) where register_date is null;
+
+alter table tb_user alter column register_date set not null;
+
+create index if not exists tb_user_register_date_idx on tb_user (register_date, id);
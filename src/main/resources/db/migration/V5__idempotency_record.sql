@@ -0,0 +1,9 @@
+create table if not exists tb_idempotency_record (
+                                        idempotency_key varchar(150) NOT NULL,
+                                        fingerprint varchar(150) NOT NULL,
+                                        movement_id uuid NOT NULL,
+                                        created_at timestamp NOT NULL,
+                                        CONSTRAINT tb_idempotency_record_pkey PRIMARY KEY (idempotency_key)
+);
+
+create index if not exists tb_idempotency_record_created_at_idx on tb_idempotency_record (created_at);
@@ -0,0 +1,3 @@
+alter table tb_movement add column if not exists transfer_id uuid null;
+
+create index if not exists tb_movement_transfer_idx on tb_movement (transfer_id);
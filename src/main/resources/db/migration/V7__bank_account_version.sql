@@ -0,0 +1 @@
+alter table tb_bank_account add column if not exists version int8 not null default 0;
@@ -0,0 +1,55 @@
+package com.uneeddevs.finances.config;
+
+import com.uneeddevs.finances.controller.CacheController;
+import com.uneeddevs.finances.security.SecurityMock;
+import com.uneeddevs.finances.service.CacheStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = CacheController.class, properties = {"server.port=8080", "management.server.port=8081"})
+@Import({SecurityConfig.class, PasswordManagerConfig.class})
+class SecurityConfigTest extends SecurityMock {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Test
+    void testScrapeOnApplicationPortWithoutTokenExpectedForbiddenStatus() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(port(8080)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health").with(port(8080)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testScrapeOnManagementPortWithoutTokenExpectedPermitted() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(port(8081)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/health").with(port(8081)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testApplicationEndpointOnManagementPortExpectedForbiddenStatus() throws Exception {
+        mockMvc.perform(get("/cache/regions").with(port(8081)))
+                .andExpect(status().isForbidden());
+    }
+
+    private RequestPostProcessor port(int port) {
+        return request -> {
+            request.setLocalPort(port);
+            return request;
+        };
+    }
+}
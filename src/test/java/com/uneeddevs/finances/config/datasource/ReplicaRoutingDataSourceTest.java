@@ -0,0 +1,90 @@
+package com.uneeddevs.finances.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVICE_METHOD = "com.uneeddevs.finances.service.impl.UserServiceImpl.findPage";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        replicaLagMonitor = new ReplicaLagMonitor(new DriverManagerDataSource(REPLICA_URL), "select 0", 1000L);
+        replicaLagMonitor.check();
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, "com.uneeddevs.finances.service", replicaLagMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    void testReadOnlyServiceTransactionExpectedReplica() throws Exception {
+        transaction(SERVICE_METHOD, true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection(), "Read-only service transaction has to use the replica");
+    }
+
+    @Test
+    void testWritesAndOtherTransactionsExpectedPrimary() throws Exception {
+        assertSame(primaryConnection, routingDataSource.getConnection(), "Work outside a transaction has to use the primary");
+
+        transaction(SERVICE_METHOD, false);
+        assertSame(primaryConnection, routingDataSource.getConnection(), "Read-write transaction has to use the primary");
+
+        transaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+        assertSame(primaryConnection, routingDataSource.getConnection(), "Repository transaction has to use the primary");
+    }
+
+    @Test
+    void testLaggingReplicaExpectedPrimaryUntilCaughtUp() throws Exception {
+        final ReplicaLagMonitor laggingMonitor = new ReplicaLagMonitor(new DriverManagerDataSource(REPLICA_URL), "select 5000", 1000L);
+        laggingMonitor.check();
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, "com.uneeddevs.finances.service", laggingMonitor);
+        transaction(SERVICE_METHOD, true);
+
+        assertFalse(laggingMonitor.isReplicaAvailable(), "Replica over the maximum lag cannot be available");
+        assertSame(primaryConnection, routingDataSource.getConnection(), "Lagging replica reads have to fall back to the primary");
+    }
+
+    @Test
+    void testUnreachableReplicaExpectedUnavailable() {
+        final ReplicaLagMonitor failingMonitor = new ReplicaLagMonitor(new DriverManagerDataSource(REPLICA_URL), "select missing", 1000L);
+        failingMonitor.check();
+
+        assertTrue(replicaLagMonitor.isReplicaAvailable(), "Replica in sync has to be available");
+        assertFalse(failingMonitor.isReplicaAvailable(), "Replica with failing lag check cannot be available");
+    }
+
+    private void transaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+    }
+}
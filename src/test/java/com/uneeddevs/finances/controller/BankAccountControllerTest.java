@@ -1,6 +1,7 @@
 package com.uneeddevs.finances.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uneeddevs.finances.config.MessageConverterConfig;
 import com.uneeddevs.finances.config.PasswordManagerConfig;
 import com.uneeddevs.finances.config.SecurityConfig;
 import com.uneeddevs.finances.dto.BankAccountInsertDTO;
@@ -11,7 +12,6 @@ import com.uneeddevs.finances.mocks.BankAccountMock;
 import com.uneeddevs.finances.mocks.BankAccountUpdateDTOMock;
 import com.uneeddevs.finances.mocks.UserMock;
 import com.uneeddevs.finances.model.BankAccount;
-import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.security.SecurityMock;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.BankAccountService;
@@ -27,7 +27,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -38,16 +40,18 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(value = BankAccountController.class)
-@Import({SecurityConfig.class, PasswordManagerConfig.class})
+@Import({SecurityConfig.class, PasswordManagerConfig.class, MessageConverterConfig.class})
 class BankAccountControllerTest extends SecurityMock {
 
     private final String BASE_PATH = "/bank-accounts";
@@ -154,6 +158,54 @@ class BankAccountControllerTest extends SecurityMock {
         verify(bankAccountService).findById(uuid);
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByIdAcceptingSmileExpectedSameSerializer() throws Exception {
+        BankAccount bankAccountMock = BankAccountMock.mock();
+        String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+        UUID uuid = UUID.fromString(id);
+        when(bankAccountService.findById(uuid)).thenReturn(bankAccountMock);
+        byte[] body = mockMvc.perform(get(BASE_PATH + "/{uuid}", id).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(bankAccountMock.toBankAccountResponseDTO(),
+                Jackson2ObjectMapperBuilder.smile().build().readValue(body, BankAccountResponseDTO.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByIdWithCurrentETagExpectedNotModifiedStatus() throws Exception {
+        String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+        UUID uuid = UUID.fromString(id);
+        when(bankAccountService.findVersion(uuid)).thenReturn(7L);
+        mockMvc.perform(get(BASE_PATH + "/{uuid}", id).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(bankAccountService, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByIdWithStaleETagExpectedSuccessWithCurrentETag() throws Exception {
+        BankAccount bankAccountMock = BankAccountMock.mock();
+        String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+        UUID uuid = UUID.fromString(id);
+        when(bankAccountService.findVersion(uuid)).thenReturn(8L);
+        when(bankAccountService.findById(uuid)).thenReturn(bankAccountMock);
+        mockMvc.perform(get(BASE_PATH + "/{uuid}", id).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"8\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().json(objectMapper.writeValueAsString(bankAccountMock.toBankAccountResponseDTO()), false));
+
+        verify(bankAccountService).findById(uuid);
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testTestFindByIdExpectedForbiddenStatus() throws Exception {
@@ -271,11 +323,10 @@ class BankAccountControllerTest extends SecurityMock {
     @WithMockUser(roles = "USER")
     void testTestFindByUserExpectedSuccess() throws Exception {
         BankAccount bankAccountMock = BankAccountMock.mock();
-        List<BankAccount> bankAccountList = Collections.singletonList(bankAccountMock);
         String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
-        User user = UserMock.mock(false);
-        when(bankAccountService.findByUser(user)).thenReturn(bankAccountList);
+        UUID user = UUID.fromString(id);
         final List<BankAccountResponseDTO> response = Collections.singletonList(bankAccountMock.toBankAccountResponseDTO());
+        when(bankAccountService.findByUser(user)).thenReturn(response);
         mockMvc.perform(get(BASE_PATH + "/search?user={userid}", id))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -288,7 +339,7 @@ class BankAccountControllerTest extends SecurityMock {
     @WithMockUser(roles = "USER")
     void testTestFindByUserExpectedNotFound() throws Exception {
         String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
-        User user = UserMock.mock(false);
+        UUID user = UUID.fromString(id);
         when(bankAccountService.findByUser(user)).thenThrow(new NoResultException("No bank account founded"));
         mockMvc.perform(get(BASE_PATH + "/search?user={userid}", id))
                 .andExpect(status().isNotFound())
@@ -301,13 +352,11 @@ class BankAccountControllerTest extends SecurityMock {
     @WithMockUser(roles = "USER")
     void testTestFindByUserExpectedBadRequest() throws Exception {
         String id = "3fa85f64c-2c963f66afa6";
-        User user = UserMock.mock(false);
-        when(bankAccountService.findByUser(user)).thenThrow(new NoResultException("No bank account founded"));
         mockMvc.perform(get(BASE_PATH + "/search?user={userid}", id))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(bankAccountService, never()).findByUser(user);
+        verify(bankAccountService, never()).findByUser(any(UUID.class));
     }
 
 }
@@ -0,0 +1,49 @@
+package com.uneeddevs.finances.controller;
+
+import com.uneeddevs.finances.config.PasswordManagerConfig;
+import com.uneeddevs.finances.config.SecurityConfig;
+import com.uneeddevs.finances.dto.CacheRegionStatisticsDTO;
+import com.uneeddevs.finances.security.SecurityMock;
+import com.uneeddevs.finances.service.CacheStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(value = CacheController.class)
+@Import({SecurityConfig.class, PasswordManagerConfig.class})
+class CacheControllerTest extends SecurityMock {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testFindRegionStatisticsExpectedOkStatus() throws Exception {
+        when(cacheStatisticsService.findRegionStatistics()).thenReturn(List.of(
+                new CacheRegionStatisticsDTO("com.uneeddevs.finances.model.Profile", 10L, 1L, 1L, 1L)));
+
+        mockMvc.perform(get("/cache/regions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("com.uneeddevs.finances.model.Profile"))
+                .andExpect(jsonPath("$[0].hitCount").value(10));
+
+        verify(cacheStatisticsService).findRegionStatistics();
+    }
+}
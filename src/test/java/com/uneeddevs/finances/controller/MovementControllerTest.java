@@ -1,14 +1,28 @@
 package com.uneeddevs.finances.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uneeddevs.finances.config.MessageConverterConfig;
 import com.uneeddevs.finances.config.PasswordManagerConfig;
 import com.uneeddevs.finances.config.SecurityConfig;
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+import com.uneeddevs.finances.dto.MovementBatchInsertDTO;
+import com.uneeddevs.finances.dto.MovementBatchItemDTO;
+import com.uneeddevs.finances.dto.MovementBatchResultDTO;
+import com.uneeddevs.finances.dto.MovementCursorDTO;
 import com.uneeddevs.finances.dto.MovementInsertDTO;
+import com.uneeddevs.finances.dto.MovementKeysetPageDTO;
 import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.MovementTransferDTO;
+import com.uneeddevs.finances.dto.MovementTransferResponseDTO;
+import com.uneeddevs.finances.enums.ExportFormat;
 import com.uneeddevs.finances.enums.MovementType;
 import com.uneeddevs.finances.mocks.MovementMock;
 import com.uneeddevs.finances.model.Movement;
 import com.uneeddevs.finances.security.SecurityMock;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.IdempotencyService;
+import com.uneeddevs.finances.service.MovementExportService;
 import com.uneeddevs.finances.service.MovementService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -19,12 +33,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import javax.persistence.NoResultException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -32,15 +54,22 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(value = MovementController.class)
-@Import({SecurityConfig.class, PasswordManagerConfig.class})
+@Import({SecurityConfig.class, PasswordManagerConfig.class, MessageConverterConfig.class})
 class MovementControllerTest extends SecurityMock {
 
     @Autowired
@@ -52,6 +81,15 @@ class MovementControllerTest extends SecurityMock {
     @MockBean
     private MovementService movementService;
 
+    @MockBean
+    private MovementExportService movementExportService;
+
+    @MockBean
+    private AccountSummaryService accountSummaryService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     private static final String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
     private static final String BASE_PATH = "/movements";
 
@@ -115,6 +153,37 @@ class MovementControllerTest extends SecurityMock {
 
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void createMovementWithIdempotencyKeyExpectedIsCreatedStatus() throws Exception {
+        final MovementInsertDTO movementInsertDTO = new MovementInsertDTO(BigDecimal.TEN, UUID.randomUUID());
+        final Movement movement = MovementMock.mock(false);
+        when(idempotencyService.save(eq("retry-key"), any(Movement.class))).thenReturn(movement);
+
+        mockMvc.perform(post(BASE_PATH + "/output")
+                        .header("Idempotency-Key", "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementInsertDTO)))
+                .andExpect(status().isCreated());
+        verify(idempotencyService).save(eq("retry-key"), any(Movement.class));
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void createMovementWithReusedIdempotencyKeyExpectedBadRequestStatus() throws Exception {
+        final MovementInsertDTO movementInsertDTO = new MovementInsertDTO(BigDecimal.TEN, UUID.randomUUID());
+        when(idempotencyService.save(eq("retry-key"), any(Movement.class)))
+                .thenThrow(new IllegalArgumentException("Idempotency key was already used for a different request"));
+
+        mockMvc.perform(post(BASE_PATH + "/input")
+                        .header("Idempotency-Key", "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementInsertDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(movementService);
+    }
+
     private static Stream<Arguments> createMovementExpectedSuccess() {
         return Stream.of(
                 Arguments.of(new MovementInsertDTO(BigDecimal.TEN, UUID.randomUUID())),
@@ -146,6 +215,92 @@ class MovementControllerTest extends SecurityMock {
         );
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testBatchMovementExpectedIsOkStatus() throws Exception {
+        final MovementBatchInsertDTO movementBatchInsertDTO = new MovementBatchInsertDTO(List.of(
+                new MovementBatchItemDTO(MovementType.INPUT, BigDecimal.TEN, UUID.fromString(id)),
+                new MovementBatchItemDTO(MovementType.OUTPUT, BigDecimal.ONE, UUID.fromString(id))));
+        final Movement movement = MovementMock.mock(true);
+        final List<MovementBatchResultDTO> results = List.of(
+                MovementBatchResultDTO.created(0, movement.toMovementResponseDTO()),
+                MovementBatchResultDTO.rejected(1, "Value to subtract cannot be greater than balance"));
+
+        when(movementService.saveAll(anyList())).thenReturn(results);
+
+        mockMvc.perform(post(BASE_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementBatchInsertDTO)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+        verify(movementService).saveAll(anyList());
+    }
+
+    @ParameterizedTest
+    @WithMockUser(roles = "USER")
+    @MethodSource(value = "batchMovementExpectedBadRequest")
+    void testBatchMovementExpectedBadRequestStatus(MovementBatchInsertDTO movementBatchInsertDTO) throws Exception {
+
+        mockMvc.perform(post(BASE_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementBatchInsertDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(movementService, never()).saveAll(anyList());
+    }
+
+    private static Stream<Arguments> batchMovementExpectedBadRequest() {
+        return Stream.of(
+                Arguments.of(new MovementBatchInsertDTO(null)),
+                Arguments.of(new MovementBatchInsertDTO(Collections.emptyList())),
+                Arguments.of(new MovementBatchInsertDTO(List.of(
+                        new MovementBatchItemDTO(null, BigDecimal.TEN, UUID.randomUUID())))),
+                Arguments.of(new MovementBatchInsertDTO(List.of(
+                        new MovementBatchItemDTO(MovementType.INPUT, BigDecimal.valueOf(-1), UUID.randomUUID())))),
+                Arguments.of(new MovementBatchInsertDTO(List.of(
+                        new MovementBatchItemDTO(MovementType.INPUT, BigDecimal.TEN, null))))
+        );
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testTransferExpectedIsCreatedStatus() throws Exception {
+        final MovementTransferDTO movementTransferDTO = new MovementTransferDTO(BigDecimal.TEN, UUID.randomUUID(), UUID.randomUUID());
+        final MovementTransferResponseDTO transfer = new MovementTransferResponseDTO(UUID.randomUUID(),
+                new MovementResponseDTO(UUID.randomUUID(), MovementType.OUTPUT, BigDecimal.TEN, LocalDateTime.now()),
+                new MovementResponseDTO(UUID.randomUUID(), MovementType.INPUT, BigDecimal.TEN, LocalDateTime.now()));
+        when(movementService.transfer(movementTransferDTO.sourceBankAccountId(), movementTransferDTO.targetBankAccountId(),
+                BigDecimal.TEN)).thenReturn(transfer);
+
+        mockMvc.perform(post(BASE_PATH + "/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementTransferDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.transferId").value(transfer.transferId().toString()))
+                .andExpect(jsonPath("$.output.movementType").value("OUTPUT"))
+                .andExpect(jsonPath("$.input.movementType").value("INPUT"));
+    }
+
+    @ParameterizedTest
+    @WithMockUser(roles = "USER")
+    @MethodSource(value = "transferExpectedBadRequest")
+    void testTransferExpectedBadRequestStatus(MovementTransferDTO movementTransferDTO) throws Exception {
+        mockMvc.perform(post(BASE_PATH + "/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movementTransferDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(movementService);
+    }
+
+    private static Stream<Arguments> transferExpectedBadRequest() {
+        return Stream.of(
+                Arguments.of(new MovementTransferDTO(null, UUID.randomUUID(), UUID.randomUUID())),
+                Arguments.of(new MovementTransferDTO(BigDecimal.ZERO, UUID.randomUUID(), UUID.randomUUID())),
+                Arguments.of(new MovementTransferDTO(BigDecimal.TEN, null, UUID.randomUUID())),
+                Arguments.of(new MovementTransferDTO(BigDecimal.TEN, UUID.randomUUID(), null))
+        );
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testDeleteByIdExpectedNoContentStatus() throws Exception {
@@ -201,17 +356,66 @@ class MovementControllerTest extends SecurityMock {
         when(movementService
                 .findByPeriodAndBankAccount(any(LocalDateTime.class),
                         any(LocalDateTime.class),
-                        any(UUID.class)))
-                .thenReturn(movements);
+                        any(UUID.class),
+                        any(Pageable.class)))
+                .thenReturn(new PageImpl<>(movementResponseDTOS));
 
         mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}", start, end, id))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(content().json(objectMapper.writeValueAsString(movementResponseDTOS)));
+                .andExpect(jsonPath("$.content").value(hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(movementResponseDTOS.get(0).id().toString()));
 
         verify(movementService).findByPeriodAndBankAccount(any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(UUID.class));
+                any(UUID.class),
+                eq(PageRequest.of(0, 50, Sort.by("movementDate", "id"))));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByPeriodAcceptingCborExpectedCborPage() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+        String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+        final MovementResponseDTO movement = MovementMock.mock(false).toMovementResponseDTO();
+        when(movementService.findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(movement)));
+
+        final byte[] body = mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}", start, end, id)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        final JsonNode page = cborMapper.readTree(body);
+        assertEquals(1, page.get("content").size());
+        final MovementResponseDTO decoded = cborMapper.treeToValue(page.get("content").get(0), MovementResponseDTO.class);
+        assertEquals(movement.id(), decoded.id());
+        assertEquals(movement.movementDate(), decoded.movementDate());
+        assertEquals(0, movement.value().compareTo(decoded.value()));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByPeriodWithCurrentETagExpectedNotModifiedStatus() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+        String id = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+        when(movementService.findVersion(UUID.fromString(id))).thenReturn(3L);
+
+        mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}", start, end, id)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\", \"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        verify(movementService, never()).findByPeriodAndBankAccount(any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                any(UUID.class),
+                any(Pageable.class));
     }
 
     @Test
@@ -224,7 +428,8 @@ class MovementControllerTest extends SecurityMock {
         when(movementService
                 .findByPeriodAndBankAccount(any(LocalDateTime.class),
                         any(LocalDateTime.class),
-                        any(UUID.class)))
+                        any(UUID.class),
+                        any(Pageable.class)))
                 .thenThrow(new NoResultException("No Movements"));
 
         mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}", start, end, id))
@@ -243,7 +448,8 @@ class MovementControllerTest extends SecurityMock {
 
         verify(movementService, never()).findByPeriodAndBankAccount(any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(UUID.class));
+                any(UUID.class),
+                any(Pageable.class));
     }
 
     private static Stream<Arguments> badRequestGetSource() {
@@ -254,4 +460,142 @@ class MovementControllerTest extends SecurityMock {
         );
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByPeriodWithPageExpectedStableOrder() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+
+        when(movementService.findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(MovementMock.mock(false).toMovementResponseDTO())));
+
+        mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}&page=2&size=10&sort=value,desc",
+                        start, end, id))
+                .andExpect(status().isOk());
+
+        verify(movementService).findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), eq(PageRequest.of(2, 10, Sort.by(Sort.Order.desc("value"), Sort.Order.asc("id")))));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByPeriodWithUnknownSortExpectedBadRequestStatus() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+
+        mockMvc.perform(get(BASE_PATH + "/search?start={start}&end={end}&bankAccount={id}&sort=bankAccount.user.password",
+                        start, end, id))
+                .andExpect(status().isBadRequest());
+
+        verify(movementService, never()).findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindByPeriodKeysetExpectedIsOkStatus() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+        final Movement movement = MovementMock.mock(false);
+        final MovementCursorDTO cursor = new MovementCursorDTO(LocalDateTime.of(2021, 10, 6, 20, 43, 3), UUID.fromString(id));
+        final MovementKeysetPageDTO page = new MovementKeysetPageDTO(List.of(movement.toMovementResponseDTO()), cursor.encode());
+
+        when(movementService.findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(UUID.fromString(id)), eq(cursor), eq(20))).thenReturn(page);
+
+        mockMvc.perform(get(BASE_PATH + "/search/keyset?start={start}&end={end}&bankAccount={id}&cursor={cursor}&size=20",
+                        start, end, id, cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+    }
+
+    @ParameterizedTest
+    @WithMockUser(roles = "USER")
+    @MethodSource(value = "badRequestKeysetSource")
+    void testFindByPeriodKeysetExpectedBadRequestStatus(String cursor, String size) throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+
+        mockMvc.perform(get(BASE_PATH + "/search/keyset?start={start}&end={end}&bankAccount={id}&cursor={cursor}&size={size}",
+                        start, end, id, cursor, size))
+                .andExpect(status().isBadRequest());
+
+        verify(movementService, never()).findByPeriodAndBankAccount(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), any(MovementCursorDTO.class), anyInt());
+    }
+
+    private static Stream<Arguments> badRequestKeysetSource() {
+        final String cursor = new MovementCursorDTO(LocalDateTime.of(2021, 10, 6, 20, 43, 3), UUID.fromString(id)).encode();
+        return Stream.of(
+                Arguments.of("not-a-cursor", "10"),
+                Arguments.of(cursor, "0"),
+                Arguments.of(cursor, "1001")
+        );
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testExportExpectedStreamedCsv() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+
+        when(movementExportService.export(eq(UUID.fromString(id)), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(ExportFormat.CSV)))
+                .thenReturn(outputStream -> outputStream.write("id,movementType,value,movementDate\n".getBytes()));
+
+        MvcResult result = mockMvc.perform(get(BASE_PATH + "/export?start={start}&end={end}&bankAccount={id}&format=CSV",
+                        start, end, id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"movements-" + id + ".csv\""))
+                .andExpect(content().string("id,movementType,value,movementDate\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testExportExpectedNotFoundStatus() throws Exception {
+        String start = "2021-10-06T20:43:03Z";
+        String end = "2021-10-05T20:43:03Z";
+
+        when(movementExportService.export(any(UUID.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(ExportFormat.class)))
+                .thenThrow(new NoResultException("No bank account"));
+
+        mockMvc.perform(get(BASE_PATH + "/export?start={start}&end={end}&bankAccount={id}", start, end, id))
+                .andExpect(status().isNotFound());
+
+        verify(movementExportService).export(eq(UUID.fromString(id)), any(LocalDateTime.class),
+                any(LocalDateTime.class), eq(ExportFormat.NDJSON));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSummaryExpectedOkStatus() throws Exception {
+        final LocalDate start = LocalDate.of(2021, 10, 1);
+        final LocalDate end = LocalDate.of(2021, 10, 31);
+        final AccountSummaryDTO summary = new AccountSummaryDTO(UUID.fromString(id), start, end, BigDecimal.ZERO,
+                BigDecimal.TEN, BigDecimal.ONE, 2L, BigDecimal.valueOf(9), Collections.emptyList());
+
+        when(accountSummaryService.summarize(UUID.fromString(id), start, end)).thenReturn(summary);
+
+        mockMvc.perform(get(BASE_PATH + "/summary?start={start}&end={end}&bankAccount={id}", "2021-10-01", "2021-10-31", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movementCount").value(2))
+                .andExpect(jsonPath("$.closingBalance").value(9));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSummaryWithInvalidDateExpectedBadRequestStatus() throws Exception {
+        mockMvc.perform(get(BASE_PATH + "/summary?start={start}&end={end}&bankAccount={id}", "2021-10-01T00:00:00Z", "2021-10-31", id))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountSummaryService);
+    }
+
 }
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uneeddevs.finances.config.PasswordManagerConfig;
 import com.uneeddevs.finances.config.SecurityConfig;
 import com.uneeddevs.finances.controller.exception.ValidationError;
+import com.uneeddevs.finances.dto.UserCursorDTO;
 import com.uneeddevs.finances.dto.UserInsertDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
+import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.dto.UserUpdateDTO;
 import com.uneeddevs.finances.mocks.UserMock;
 import com.uneeddevs.finances.model.User;
@@ -23,6 +26,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,9 +39,11 @@ import java.util.UUID;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc(addFilters = false)
@@ -75,6 +81,18 @@ class UserControllerTest extends SecurityMock {
         verify(userService).findById(any(UUID.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testFindUserByIdWithCurrentETagExpectedNotModifiedStatus() throws Exception {
+        when(userService.findUpdateDate(any(UUID.class))).thenReturn(defaultLocalDateTime);
+        mockMvc.perform(get("/users/{uuid}", "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + defaultLocalDateTime + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + defaultLocalDateTime + "\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        verify(userService, never()).findById(any(UUID.class));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testFindUserByIdExpectedForbiddenStatus() throws Exception {
@@ -200,11 +218,11 @@ class UserControllerTest extends SecurityMock {
     @WithMockUser(roles = "ADMIN")
     void testRequestPageExpectedOkStatus() throws Exception{
 
-        User userResponse = UserMock.mock(true);
+        UserResponseDTO userResponse = UserMock.mock(true).toUserResponseDTO();
 
-        List<User> users = new ArrayList<>();
+        List<UserResponseDTO> users = new ArrayList<>();
         users.add(userResponse);
-        Page<User> page = new PageImpl<>(users);
+        Page<UserResponseDTO> page = new PageImpl<>(users);
         when(userService.findPage(any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/users/page"))
@@ -238,4 +256,38 @@ class UserControllerTest extends SecurityMock {
 
         verify(userService).findPage(any(Pageable.class));
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRequestKeysetExpectedOkStatus() throws Exception {
+        UserResponseDTO userResponse = UserMock.mock(true).toUserResponseDTO();
+        UserCursorDTO cursor = new UserCursorDTO(defaultLocalDateTime, UUID.randomUUID());
+        UserKeysetPageDTO page = new UserKeysetPageDTO(List.of(userResponse), cursor.encode());
+        when(userService.findKeysetPage(cursor, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/users/keyset?cursor={cursor}&size=20", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+
+        verify(userService).findKeysetPage(cursor, 20);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = "badRequestKeysetSource")
+    @WithMockUser(roles = "ADMIN")
+    void testRequestKeysetExpectedBadRequestStatus(String cursor, String size) throws Exception {
+        mockMvc.perform(get("/users/keyset?cursor={cursor}&size={size}", cursor, size))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).findKeysetPage(any(), anyInt());
+    }
+
+    private static Stream<Arguments> badRequestKeysetSource() {
+        final String cursor = new UserCursorDTO(LocalDateTime.of(2020, 1, 1, 12, 0), UUID.randomUUID()).encode();
+        return Stream.of(
+                Arguments.of("invalid", "10"),
+                Arguments.of(cursor, "0"),
+                Arguments.of(cursor, "1001")
+        );
+    }
 }
@@ -0,0 +1,60 @@
+package com.uneeddevs.finances.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private LogSamplingTurboFilter turboFilter;
+
+    @BeforeEach
+    void setup() {
+        turboFilter = new LogSamplingTurboFilter();
+        turboFilter.addLoggerPrefix("com.uneeddevs.finances.service.impl");
+    }
+
+    @Test
+    void testSampledLoggerExpectedOneInRateMessagesKept() {
+        turboFilter.setRate(10);
+        turboFilter.start();
+        final Logger logger = loggerContext.getLogger("com.uneeddevs.finances.service.impl.UserServiceImpl");
+
+        int kept = 0;
+        for (int i = 0; i < 10000; i++)
+            if(turboFilter.decide(null, logger, Level.INFO, "message", null, null) == FilterReply.NEUTRAL)
+                kept++;
+
+        assertTrue(kept > 500 && kept < 1500, "Expected about one in ten messages kept, kept " + kept);
+    }
+
+    @Test
+    void testWarningsAndOtherLoggersExpectedNeverSampled() {
+        turboFilter.setRate(1000);
+        turboFilter.start();
+        final Logger sampled = loggerContext.getLogger("com.uneeddevs.finances.service.impl.UserServiceImpl");
+        final Logger other = loggerContext.getLogger("com.uneeddevs.finances.security.JwtUtil");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, sampled, Level.WARN, "message", null, null),
+                    "Warnings cannot be sampled");
+            assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, other, Level.INFO, "message", null, null),
+                    "Other loggers cannot be sampled");
+        }
+    }
+
+    @Test
+    void testInvalidRateExpectedNotStarted() {
+        turboFilter.setContext(loggerContext);
+        turboFilter.setRate(0);
+        turboFilter.start();
+
+        assertFalse(turboFilter.isStarted(), "Filter with invalid rate cannot start");
+    }
+}
@@ -0,0 +1,80 @@
+package com.uneeddevs.finances.diagnostics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlDiagnosticsFilterTest {
+
+    private final SqlStatementInspector statementInspector = new SqlStatementInspector();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setup() {
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(SqlDiagnosticsFilter.class)).addAppender(appender);
+        request = new MockHttpServletRequest("GET", "/users/page");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) LoggerFactory.getLogger(SqlDiagnosticsFilter.class)).detachAppender(appender);
+    }
+
+    @Test
+    void testRequestOverStatementThresholdExpectedLoggedAndHeaders() throws Exception {
+        final SqlDiagnosticsResponseAdvice advice = new SqlDiagnosticsResponseAdvice(true);
+
+        new SqlDiagnosticsFilter(10000L, 3).doFilter(request, response, statements(3, advice));
+
+        assertEquals("3", response.getHeader(SqlDiagnosticsResponseAdvice.STATEMENTS_HEADER), "Expected statement count header");
+        assertNotNull(response.getHeader(SqlDiagnosticsResponseAdvice.JDBC_TIME_HEADER), "Expected JDBC time header");
+        assertEquals(1, appender.list.size(), "Expected request over the threshold to be logged");
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("uri=/users/page"), "Expected request uri");
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("statements=3"), "Expected statement count");
+        assertNull(SqlStatistics.current(), "Statistics cannot leak to the next request");
+    }
+
+    @Test
+    void testRequestUnderThresholdsExpectedNotLogged() throws Exception {
+        final SqlDiagnosticsResponseAdvice advice = new SqlDiagnosticsResponseAdvice(false);
+
+        new SqlDiagnosticsFilter(10000L, 3).doFilter(request, response, statements(2, advice));
+
+        assertFalse(response.containsHeader(SqlDiagnosticsResponseAdvice.STATEMENTS_HEADER), "Headers are disabled");
+        assertTrue(appender.list.isEmpty(), "Fast request cannot be logged");
+    }
+
+    @Test
+    void testStatementOutsideRequestExpectedIgnored() {
+        assertEquals("select 1", statementInspector.inspect("select 1"), "Statement cannot be changed");
+        assertNull(SqlStatistics.current(), "Statement outside a request cannot start statistics");
+    }
+
+    private FilterChain statements(int count, SqlDiagnosticsResponseAdvice advice) {
+        return (servletRequest, servletResponse) -> {
+            for (int i = 0; i < count; i++)
+                statementInspector.inspect("select 1");
+            if(advice.supports(null, null)) {
+                final ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+                advice.beforeBodyWrite(null, null, null, null, new ServletServerHttpRequest(request), serverResponse);
+                serverResponse.flush();
+            }
+        };
+    }
+}
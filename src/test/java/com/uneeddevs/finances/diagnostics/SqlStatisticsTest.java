@@ -0,0 +1,56 @@
+package com.uneeddevs.finances.diagnostics;
+
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SqlStatisticsTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        SqlStatistics.stop();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testStatementsExpectedCountedLikeHibernateStatistics() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userRepository.save(new User("user", "sql-statistics@mail.com", "password"));
+        statistics.clear();
+        final SqlStatistics sqlStatistics = SqlStatistics.start();
+
+        userRepository.findResponses(PageRequest.of(0, 1));
+        userRepository.findByEmail("missing@mail.com");
+
+        assertEquals(statistics.getPrepareStatementCount(), sqlStatistics.statementCount(), "Expected every statement counted");
+        assertEquals(3, sqlStatistics.statementCount(), "Expected page, count and email statements");
+        assertTrue(sqlStatistics.jdbcMillis() >= 0, "JDBC time cannot be negative");
+
+        SqlStatistics.stop();
+        userRepository.findByEmail("other@mail.com");
+        assertEquals(3, sqlStatistics.statementCount(), "Stopped statistics cannot count");
+    }
+}
@@ -5,11 +5,13 @@ import com.uneeddevs.finances.model.Movement;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class MovementMock {
 
     private static final UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    private static final LocalDateTime movementDate = LocalDateTime.of(2021, 10, 6, 20, 43, 3);
 
     private MovementMock() {}
 
@@ -20,6 +22,9 @@ public class MovementMock {
         MovementType movementType = isInput ? MovementType.INPUT : MovementType.OUTPUT;
         Movement movement = new Movement(movementType, BigDecimal.TEN, BankAccountMock.mock());
         idField.set(movement, uuid);
+        Field movementDateField = clazz.getDeclaredField("movementDate");
+        movementDateField.setAccessible(true);
+        movementDateField.set(movement, movementDate);
         return  movement;
     }
 }
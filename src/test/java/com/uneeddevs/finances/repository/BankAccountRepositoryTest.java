@@ -0,0 +1,66 @@
+package com.uneeddevs.finances.repository;
+
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BankAccountRepositoryTest {
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() {
+        final User user = userRepository.save(new User("name", "rename@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, "Account 1", user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testRenameAfterConcurrentBalanceUpdateExpectedBalanceKept() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final BankAccount before = bankAccountRepository.findById(bankAccount.getId()).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> bankAccountRepository.addBalance(bankAccount.getId(), BigDecimal.ONE));
+        transactionTemplate.executeWithoutResult(status -> assertEquals(1,
+                bankAccountRepository.rename(bankAccount.getId(), "Renamed"), "Expected one renamed account"));
+
+        entityManagerFactory.getCache().evict(BankAccount.class, bankAccount.getId());
+        final BankAccount after = bankAccountRepository.findById(bankAccount.getId()).orElseThrow();
+        assertEquals("Renamed", after.getName(), "Expected new name");
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(after.getBalance()), "Rename cannot overwrite the balance");
+        assertEquals(before.getVersion() + 2, after.getVersion(), "Balance update and rename have to bump the version");
+    }
+}
@@ -0,0 +1,83 @@
+package com.uneeddevs.finances.repository;
+
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MovementRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime END = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private MovementRepository movementRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() {
+        final User user = userRepository.save(new User("name", "repository@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, "Account 1", user));
+        for (int i = 0; i < 5; i++)
+            movementRepository.save(new Movement(MovementType.INPUT, BigDecimal.valueOf(i + 1L), bankAccount));
+        movementRepository.flush();
+    }
+
+    @Test
+    void testKeysetPagesExpectedSameOrderAsOffsetPages() {
+        final List<UUID> expected = movementRepository.findResponsesByPeriodAndBankAccount(START, END, bankAccount.getId(),
+                PageRequest.of(0, 10, Sort.by("movementDate", "id"))).map(MovementResponseDTO::id).getContent();
+
+        final List<MovementResponseDTO> keyset = new ArrayList<>(movementRepository.findKeysetPage(START, END, bankAccount.getId(),
+                PageRequest.of(0, 2)));
+        List<MovementResponseDTO> page = keyset;
+        while (!page.isEmpty()) {
+            final MovementResponseDTO last = page.get(page.size() - 1);
+            page = movementRepository.findKeysetPageAfter(START, END, bankAccount.getId(), last.movementDate(), last.id(),
+                    PageRequest.of(0, 2));
+            keyset.addAll(page);
+        }
+
+        assertEquals(5, expected.size(), "Expected every movement of the period");
+        assertEquals(expected, keyset.stream().map(MovementResponseDTO::id).toList(),
+                "Keyset pages have to walk every movement once, in order");
+    }
+
+    @Test
+    void testStreamByPeriodExpectedOrderedMovements() {
+        final List<UUID> expected = movementRepository.findKeysetPage(START, END, bankAccount.getId(), PageRequest.of(0, 10))
+                .stream().map(MovementResponseDTO::id).toList();
+
+        try (Stream<Movement> movements = movementRepository.streamByPeriodAndBankAccount(START, END, bankAccount)) {
+            assertEquals(expected, movements.map(Movement::getId).toList(),
+                    "Stream has to return every movement in order");
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.uneeddevs.finances.repository;
+
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BankAccountServiceImpl.class, OwnershipResolver.class, SimpleMeterRegistry.class})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private BankAccount bankAccount;
+    private BankAccount otherBankAccount;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final User user = userRepository.save(new User("name", "cache@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, "Account 1", user));
+        otherBankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, "Account 2", user));
+        bankAccountRepository.findById(bankAccount.getId()).orElseThrow();
+        bankAccountRepository.findById(otherBankAccount.getId()).orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testFindBankAccountTwiceExpectedServedFromCache() {
+        statistics.clear();
+
+        bankAccountRepository.findById(bankAccount.getId()).orElseThrow();
+
+        assertEquals(0L, statistics.getPrepareStatementCount(), "Cached account and owner cannot hit the database");
+        assertTrue(statistics.getCacheRegionStatistics("bank-account").getHitCount() > 0,
+                "Expected a bank account region hit");
+        assertTrue(statistics.getCacheRegionStatistics("user").getHitCount() > 0,
+                "Expected a user region hit");
+    }
+
+    @Test
+    void testAddBalanceExpectedCachedAccountRefreshed() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> bankAccountService.addBalance(bankAccount.getId(), BigDecimal.ONE));
+
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(bankAccountRepository.findById(bankAccount.getId())
+                .orElseThrow().getBalance()), "Balance update cannot leave a stale cached account");
+    }
+
+    @Test
+    void testReadDuringBalanceUpdateExpectedStaleAccountNotCached() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bankAccountService.addBalance(bankAccount.getId(), BigDecimal.ONE);
+            statistics.clear();
+            CompletableFuture.runAsync(() -> bankAccountRepository.findById(bankAccount.getId()).orElseThrow()).join();
+
+            assertEquals(0L, statistics.getCacheRegionStatistics("bank-account").getPutCount(),
+                    "Read racing the balance update cannot cache the account");
+        });
+
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(bankAccountRepository.findById(bankAccount.getId())
+                .orElseThrow().getBalance()), "Balance update cannot leave a stale cached account");
+    }
+
+    @Test
+    void testAddBalanceExpectedOtherCachedAccountsKept() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> bankAccountService.addBalance(bankAccount.getId(), BigDecimal.ONE));
+        statistics.clear();
+
+        bankAccountRepository.findById(otherBankAccount.getId()).orElseThrow();
+
+        assertEquals(0L, statistics.getPrepareStatementCount(), "Balance update of one account cannot evict the others");
+    }
+
+    @Test
+    void testRenameExpectedCachedAccountRefreshed() {
+        bankAccountService.update(new BankAccount(bankAccount.getId(), "Renamed"));
+
+        assertEquals("Renamed", bankAccountRepository.findById(bankAccount.getId()).orElseThrow().getName(),
+                "Rename cannot leave a stale cached account");
+    }
+}
@@ -0,0 +1,73 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.security.exception.PasswordEncoderSaturatedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void testEncodeAndMatchesExpectedSuccess() {
+        passwordEncoder = new BoundedPasswordEncoder(4, 1, 1);
+
+        String encoded = passwordEncoder.encode("password");
+
+        assertTrue(passwordEncoder.matches("password", encoded), "Encoded password has to match");
+        assertFalse(passwordEncoder.matches("wrong-password", encoded), "Other password cannot match");
+        assertEquals(3L, passwordEncoder.stats().hashCount(), "Expected every hash to be counted");
+    }
+
+    @Test
+    void testEncodeAndMatchesExpectedTimersByOperation() {
+        passwordEncoder = new BoundedPasswordEncoder(4, 1, 1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder.bindTo(meterRegistry);
+
+        passwordEncoder.matches("password", passwordEncoder.encode("password"));
+
+        assertEquals(1L, meterRegistry.get("password.encoder.hash").tag("operation", "encode").functionTimer().count(),
+                "Expected the encode to be timed");
+        assertEquals(1L, meterRegistry.get("password.encoder.hash").tag("operation", "match").functionTimer().count(),
+                "Expected the match to be timed");
+        assertEquals(0.0, meterRegistry.get("password.encoder.rejected").functionCounter().count(),
+                "Expected no rejection");
+    }
+
+    @Test
+    void testEncodeWhenSaturatedExpectedPasswordEncoderSaturatedException() throws Exception {
+        passwordEncoder = new BoundedPasswordEncoder(14, 1, 0);
+        CompletableFuture<String> slowHash = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("password"));
+        while (passwordEncoder.stats().activeCount() == 0)
+            Thread.onSpinWait();
+
+        assertThrows(PasswordEncoderSaturatedException.class, () -> passwordEncoder.encode("password"),
+                "Expected fast rejection while every worker is busy");
+        assertEquals(1L, passwordEncoder.stats().rejectedCount(), "Expected rejection to be counted");
+        assertNotNull(slowHash.get(), "Admitted hash has to complete");
+    }
+
+    @Test
+    void testUpgradeEncodingExpectedTrueWhenCostChanges() {
+        passwordEncoder = new BoundedPasswordEncoder(5, 1, 1);
+
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")),
+                "Lower cost has to be rehashed");
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")),
+                "Higher cost has to be rehashed");
+        assertFalse(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")),
+                "Same cost cannot be rehashed");
+    }
+}
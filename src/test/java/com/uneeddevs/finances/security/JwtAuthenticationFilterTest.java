@@ -32,7 +32,7 @@ class JwtAuthenticationFilterTest {
 	@BeforeEach
 	void setup() {
 		authenticationManager = mock(AuthenticationManager.class);
-		jwtUtil = new JwtUtil(1000000000000L, "MOCKED_SECRET");
+		jwtUtil = new JwtUtil(1000000000000L, "MOCKED_SECRET", 100L);
 		objectMapper = spy(ObjectMapper.class);
 		jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager,  objectMapper, jwtUtil);
 	}
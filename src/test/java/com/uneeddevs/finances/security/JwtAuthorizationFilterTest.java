@@ -1,7 +1,11 @@
 package com.uneeddevs.finances.security;
 
+import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.util.UserUtil;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -14,7 +18,7 @@ import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class JwtAuthorizationFilterTest {
@@ -23,15 +27,24 @@ class JwtAuthorizationFilterTest {
 	private AuthenticationManager authenticationManager;
 	private JwtUtil jwtUtil;
 	private UserService userService;
+	private PrincipalCache principalCache;
+	private TokenRevocationList tokenRevocationList;
 	private JwtAuthorizationFilter jwtAuthenticationFilter;
 
 	@BeforeEach
 	void setup() {
 		authenticationManager = mock(AuthenticationManager.class);
-		jwtUtil = new JwtUtil(1000000000L, "MOCKED_SECRET");
+		jwtUtil = new JwtUtil(1000000000L, "MOCKED_SECRET", 100L);
 		userService = mock(UserService.class);
+		principalCache = new PrincipalCache(100L, 60000L);
+		tokenRevocationList = new TokenRevocationList(1000000000L, 100L);
 		jwtAuthenticationFilter = new JwtAuthorizationFilter(authenticationManager,
-				 jwtUtil, userService);
+				 jwtUtil, userService, principalCache, tokenRevocationList, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
 	}
 
 	@Test
@@ -52,4 +65,66 @@ class JwtAuthorizationFilterTest {
 			assertDoesNotThrow(() -> jwtAuthenticationFilter.doFilterInternal(request, response, chain));
 		}
 	}
+
+	@Test
+	void testDoInternalFilterTwiceExpectedSingleUserLoad() throws Exception {
+		try(MockedStatic<SecurityContextHolder> mockedContext = Mockito.mockStatic(SecurityContextHolder.class)) {
+			final HttpServletRequest request = mock(HttpServletRequest.class);
+			final HttpServletResponse response = mock(HttpServletResponse.class);
+			final FilterChain chain = mock(FilterChain.class);
+			final SecurityContext securityContext = mock(SecurityContext.class);
+			final String token = jwtUtil.generateToken(UserMock.mock(true));
+
+			mockedContext.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+			when(userService.loadUserByUsername("email@mail.com")).thenReturn(UserMock.mock(true));
+			when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+			jwtAuthenticationFilter.doFilterInternal(request, response, chain);
+			jwtAuthenticationFilter.doFilterInternal(request, response, chain);
+
+			verify(userService).loadUserByUsername("email@mail.com");
+			verify(securityContext, times(2)).setAuthentication(any());
+			assertEquals(1L, principalCache.stats().hitCount(), "Second request has to hit the principal cache");
+		}
+	}
+
+	@Test
+	void testDoInternalFilterStatelessExpectedPrincipalFromClaims() throws Exception {
+		final HttpServletRequest request = mock(HttpServletRequest.class);
+		final HttpServletResponse response = mock(HttpServletResponse.class);
+		final FilterChain chain = mock(FilterChain.class);
+		final User user = UserMock.mock(true);
+		final String token = jwtUtil.generateToken(user);
+		final JwtAuthorizationFilter statelessFilter = new JwtAuthorizationFilter(authenticationManager,
+				jwtUtil, userService, principalCache, tokenRevocationList, true);
+
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+		statelessFilter.doFilterInternal(request, response, chain);
+
+		verify(userService, never()).loadUserByUsername(anyString());
+		assertTrue(SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof TokenPrincipal,
+				"Principal has to be built from token claims");
+		assertEquals(user.getId(), UserUtil.authenticatedUUID(), "Authenticated id has to be the token id claim");
+		assertEquals(user.getEmail(), UserUtil.authenticatedUsername(), "Authenticated username has to be the token subject");
+		assertTrue(UserUtil.hasAuthority(ProfileRole.ADMIN), "Authenticated principal has to keep token roles");
+		assertFalse(UserUtil.hasAuthority(ProfileRole.USER), "Authenticated principal cannot have roles outside the token");
+	}
+
+	@Test
+	void testDoInternalFilterWithRevokedTokenExpectedNoAuthentication() throws Exception {
+		final HttpServletRequest request = mock(HttpServletRequest.class);
+		final HttpServletResponse response = mock(HttpServletResponse.class);
+		final FilterChain chain = mock(FilterChain.class);
+		final String token = jwtUtil.generateToken(UserMock.mock(true));
+
+		when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+		tokenRevocationList.revokeToken(jwtUtil.verify(token).orElseThrow());
+
+		jwtAuthenticationFilter.doFilterInternal(request, response, chain);
+
+		verify(userService, never()).loadUserByUsername(anyString());
+		verify(chain).doFilter(request, response);
+		assertNull(SecurityContextHolder.getContext().getAuthentication(), "Revoked token cannot authenticate");
+	}
 }
@@ -0,0 +1,93 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = new JwtUtil(1000000000L, "MOCKED_SECRET", 100L);
+    }
+
+    @Test
+    void testVerifyGeneratedTokenExpectedClaims() throws Exception {
+        User user = UserMock.mock(true);
+        String token = jwtUtil.generateToken(user);
+
+        JwtToken jwtToken = jwtUtil.verify(token).orElseThrow();
+
+        assertEquals(user.getUsername(), jwtToken.subject(), "Subject has to be the username");
+        assertEquals(user.getId().toString(), jwtToken.id(), "Id claim has to be the user id");
+        assertEquals(List.of("ROLE_ADMIN"), jwtToken.roles(), "Roles claim has to be the user profiles");
+        assertNotNull(jwtToken.issuedAt(), "Issued at cannot be null");
+        assertEquals(user.getId(), jwtToken.toPrincipal().getId(), "Principal id has to be the user id");
+    }
+
+    @Test
+    void testVerifyTokenFromOtherInstanceExpectedSameClaims() throws Exception {
+        User user = UserMock.mock(true);
+        String token = jwtUtil.generateToken(user);
+        JwtUtil otherJwtUtil = new JwtUtil(1000000000L, "MOCKED_SECRET", 100L);
+
+        assertEquals(jwtUtil.verify(token), otherJwtUtil.verify(token),
+                "Cached and verified tokens have to carry the same claims");
+    }
+
+    @Test
+    void testVerifyTamperedTokenExpectedEmpty() throws Exception {
+        String token = jwtUtil.generateToken(UserMock.mock(true));
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertTrue(jwtUtil.verify(tampered).isEmpty(), "Tampered token cannot be verified");
+        assertFalse(jwtUtil.isValidToken(tampered), "Tampered token cannot be valid");
+        assertNull(jwtUtil.getUsername(tampered), "Tampered token cannot have username");
+    }
+
+    @Test
+    void testVerifyTokenSignedWithOtherSecretExpectedEmpty() throws Exception {
+        String token = new JwtUtil(1000000000L, "OTHER_SECRET", 100L).generateToken(UserMock.mock(true));
+
+        assertTrue(jwtUtil.verify(token).isEmpty(), "Token signed with other secret cannot be verified");
+    }
+
+    @Test
+    void testVerifyExpiredTokenExpectedEmpty() throws Exception {
+        JwtUtil expiredJwtUtil = new JwtUtil(-1000L, "MOCKED_SECRET", 100L);
+        String token = expiredJwtUtil.generateToken(UserMock.mock(true));
+
+        assertTrue(expiredJwtUtil.verify(token).isEmpty(), "Expired token cannot be verified");
+        assertEquals(0L, expiredJwtUtil.getExpiration(token), "Expired token cannot have expiration");
+    }
+
+
+    @Test
+    void testSignAndVerifyExpectedTimersByResult() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtUtil.bindTo(meterRegistry);
+        JwtUtil uncachedJwtUtil = new JwtUtil(1000000000L, "MOCKED_SECRET", 0L);
+        uncachedJwtUtil.bindTo(new SimpleMeterRegistry());
+
+        String token = jwtUtil.generateToken(UserMock.mock(true));
+        jwtUtil.verify(token);
+        jwtUtil.verify(new JwtUtil(1000000000L, "OTHER_SECRET", 0L).generateToken(UserMock.mock(true)));
+        uncachedJwtUtil.verify(token);
+
+        assertEquals(1L, meterRegistry.get("jwt.sign").functionTimer().count(), "Expected the signature to be timed");
+        assertEquals(1L, meterRegistry.get("jwt.verify").tag("result", "cached").functionTimer().count(),
+                "Expected the cached verification to be timed");
+        assertEquals(1L, meterRegistry.get("jwt.verify").tag("result", "rejected").functionTimer().count(),
+                "Expected the rejected verification to be timed");
+        assertEquals(0L, meterRegistry.get("jwt.verify").tag("result", "verified").functionTimer().count(),
+                "Verification of other instance cannot be timed here");
+    }
+}
@@ -0,0 +1,203 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.service.impl.AccountSummaryServiceImpl;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import com.uneeddevs.finances.service.impl.MovementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NoResultException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OwnershipResolver.class, BankAccountServiceImpl.class, MovementServiceImpl.class, MovementWriter.class, AccountSummaryServiceImpl.class,
+        SimpleMeterRegistry.class})
+class OwnershipResolverTest {
+
+    @TestConfiguration
+    @EnableGlobalMethodSecurity(prePostEnabled = true)
+    static class MethodSecurityConfig {
+    }
+
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private OwnershipResolver ownershipResolver;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private MovementService movementService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private MovementRepository movementRepository;
+    @Autowired
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User other;
+    private BankAccount bankAccount;
+    private Movement movement;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User("owner", "owner@mail.com", "password"));
+        other = userRepository.save(new User("other", "other@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, "Account 1", owner));
+        movement = movementRepository.save(new Movement(MovementType.INPUT, BigDecimal.ONE, bankAccount));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ownershipResolver.evict(bankAccount.getId());
+        accountDailySummaryRepository.deleteAll();
+        movementRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testAccountOwnerExpectedSingleQueryThenCached() {
+        statistics.clear();
+
+        assertEquals(Optional.of(owner.getId()), ownershipResolver.accountOwner(bankAccount.getId()));
+        assertEquals(1L, statistics.getPrepareStatementCount(), "Owner must be resolved with a single query");
+        assertEquals(0L, statistics.getEntityLoadCount(), "Owner resolution cannot load entities");
+
+        statistics.clear();
+        assertEquals(Optional.of(owner.getId()), ownershipResolver.accountOwner(bankAccount.getId()));
+        assertEquals(0L, statistics.getPrepareStatementCount(), "Cached owner cannot hit the database");
+    }
+
+    @Test
+    void testMovementOwnerExpectedResolvedThroughAccount() {
+        ownershipResolver.accountOwner(bankAccount.getId());
+        statistics.clear();
+
+        assertEquals(Optional.of(owner.getId()), ownershipResolver.movementOwner(movement.getId()));
+        assertEquals(1L, statistics.getPrepareStatementCount(), "Only the movement account id must be queried");
+        assertEquals(0L, statistics.getEntityLoadCount(), "Owner resolution cannot load entities");
+    }
+
+    @Test
+    void testUnknownIdsExpectedEmpty() {
+        assertTrue(ownershipResolver.accountOwner(UUID.randomUUID()).isEmpty(), "Unknown account cannot have an owner");
+        assertTrue(ownershipResolver.movementOwner(UUID.randomUUID()).isEmpty(), "Unknown movement cannot have an owner");
+    }
+
+    @Test
+    void testOwnerExpectedAccessGranted() {
+        authenticate(owner, List.of());
+
+        assertEquals(bankAccount.getId(), bankAccountService.findById(bankAccount.getId()).getId());
+        assertEquals(movement.getId(), movementService.findById(movement.getId()).getId());
+    }
+
+    @Test
+    void testOtherUserExpectedAccessDeniedException() {
+        authenticate(other, List.of());
+        final UUID bankAccountId = bankAccount.getId();
+        final UUID movementId = movement.getId();
+
+        assertThrows(AccessDeniedException.class, () -> bankAccountService.findById(bankAccountId));
+        assertThrows(AccessDeniedException.class, () -> bankAccountService.deleteById(bankAccountId));
+        assertThrows(AccessDeniedException.class, () -> movementService.findById(movementId));
+        assertThrows(AccessDeniedException.class, () -> movementService.deleteMovementById(movementId));
+        assertThrows(AccessDeniedException.class, () -> movementService.findByPeriodAndBankAccount(LocalDateTime.MIN,
+                LocalDateTime.MAX, bankAccountId, PageRequest.of(0, 10)));
+        assertTrue(movementRepository.existsById(movementId), "Movement of another user cannot be deleted");
+        assertTrue(bankAccountRepository.existsById(bankAccountId), "Account of another user cannot be deleted");
+    }
+
+    @Test
+    void testOwnerDeleteAccountWithMovementsExpectedIllegalArgumentException() {
+        authenticate(owner, List.of());
+        final UUID bankAccountId = bankAccount.getId();
+        final Movement output = movementService.save(new Movement(MovementType.OUTPUT, BigDecimal.ONE,
+                new BankAccount(bankAccountId, "Account 1")));
+
+        assertThrows(IllegalArgumentException.class, () -> bankAccountService.deleteById(bankAccountId));
+
+        assertTrue(bankAccountRepository.existsById(bankAccountId), "Account with movements cannot be deleted");
+        assertEquals(2L, movementRepository.count(), "Movements cannot be deleted with the account");
+        assertEquals(1L, accountDailySummaryRepository.count(), "Summary cannot be deleted while the account stays");
+
+        movementService.deleteMovementById(output.getId());
+        movementService.deleteMovementById(movement.getId());
+        assertTrue(bankAccountService.deleteById(bankAccountId), "Account without movements has to be deleted");
+
+        assertFalse(bankAccountRepository.existsById(bankAccountId), "Expected account deleted");
+        assertEquals(0L, accountDailySummaryRepository.count(), "Summaries of the account have to be deleted with it");
+        assertTrue(ownershipResolver.accountOwner(bankAccountId).isEmpty(), "Deleted account cannot keep a cached owner");
+    }
+
+    @Test
+    void testUnknownIdsWithUserExpectedAccessDeniedException() {
+        authenticate(other, List.of());
+
+        assertThrows(AccessDeniedException.class, () -> bankAccountService.findById(UUID.randomUUID()));
+        assertThrows(AccessDeniedException.class, () -> movementService.findById(UUID.randomUUID()));
+    }
+
+    @Test
+    void testUnknownIdsWithAdminExpectedNoResultException() {
+        authenticate(other, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        assertEquals(bankAccount.getId(), bankAccountService.findById(bankAccount.getId()).getId());
+        assertThrows(NoResultException.class, () -> bankAccountService.findById(UUID.randomUUID()));
+        assertThrows(NoResultException.class, () -> movementService.findById(UUID.randomUUID()));
+    }
+
+    private void authenticate(User user, List<SimpleGrantedAuthority> authorities) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, authorities));
+    }
+}
@@ -0,0 +1,61 @@
+package com.uneeddevs.finances.security;
+
+import com.uneeddevs.finances.mocks.UserMock;
+import com.uneeddevs.finances.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PrincipalCacheTest {
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setup() {
+        principalCache = new PrincipalCache(100L, 60000L);
+    }
+
+    @Test
+    void testGetCachedPrincipalExpectedSingleLoad() throws Exception {
+        User user = UserMock.mock(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        UserDetails first = principalCache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return user;
+        });
+        UserDetails second = principalCache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return user;
+        });
+
+        assertSame(first, second, "Cached principal has to be the same instance");
+        assertEquals(1, loads.get(), "Principal has to be loaded once");
+        assertEquals(1L, principalCache.stats().hitCount(), "Expected one cache hit");
+        assertEquals(1L, principalCache.stats().missCount(), "Expected one cache miss");
+    }
+
+    @Test
+    void testInvalidatePrincipalExpectedReload() throws Exception {
+        User user = UserMock.mock(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        principalCache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return user;
+        });
+        principalCache.invalidate(user.getUsername());
+        principalCache.get(user.getUsername(), username -> {
+            loads.incrementAndGet();
+            return user;
+        });
+
+        assertEquals(2, loads.get(), "Principal has to be reloaded after invalidation");
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.uneeddevs.finances.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    private static final String USERNAME = "email@mail.com";
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setup() {
+        tokenRevocationList = new TokenRevocationList(60000L, 100L);
+    }
+
+    @Test
+    void testNotRevokedTokenExpectedFalse() {
+        assertFalse(tokenRevocationList.isRevoked(token("signature", USERNAME, new Date())), "Token cannot be revoked");
+    }
+
+    @Test
+    void testRevokedTokenExpectedTrue() {
+        tokenRevocationList.revokeToken(token("signature", USERNAME, new Date()));
+        assertTrue(tokenRevocationList.isRevoked(token("signature", USERNAME, new Date())), "Token has to be revoked");
+        assertFalse(tokenRevocationList.isRevoked(token("other", USERNAME, new Date())),
+                "Other tokens cannot be revoked");
+    }
+
+    @Test
+    void testRevokedUserExpectedOlderTokensRevoked() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 1000);
+        tokenRevocationList.revokeUser(USERNAME);
+        Date issuedAfter = new Date(System.currentTimeMillis() + 1000);
+
+        assertTrue(tokenRevocationList.isRevoked(token("signature", USERNAME, issuedBefore)),
+                "Older token has to be revoked");
+        assertFalse(tokenRevocationList.isRevoked(token("signature", USERNAME, issuedAfter)),
+                "Newer token cannot be revoked");
+        assertFalse(tokenRevocationList.isRevoked(token("signature", "other@mail.com", issuedBefore)),
+                "Other users cannot be revoked");
+    }
+
+    @Test
+    void testRevokedUserExpectedTokenIssuedInSameSecondBeforeRevoked() {
+        Date issuedBefore = new Date();
+        tokenRevocationList.revokeUser(USERNAME);
+
+        assertTrue(tokenRevocationList.isRevoked(token("signature", USERNAME, issuedBefore)),
+                "Token issued before the revocation in the same second has to be revoked");
+    }
+
+    @Test
+    void testRevokedUserExpectedTokenIssuedRightAfterwardsAccepted() {
+        tokenRevocationList.revokeUser(USERNAME);
+        Date issuedAfter = new Date();
+
+        assertFalse(tokenRevocationList.isRevoked(token("signature", USERNAME, issuedAfter)),
+                "Token issued after the revocation cannot be revoked");
+    }
+
+    private JwtToken token(String signature, String username, Date issuedAt) {
+        return new JwtToken("header.payload." + signature, username, null, List.of(), issuedAt,
+                new Date(System.currentTimeMillis() + 60000));
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.uneeddevs.finances.security.handler;
 
+import com.uneeddevs.finances.security.exception.PasswordEncoderSaturatedException;
 import com.uneeddevs.finances.security.exception.handler.JwtAuthenticationFailureHandler;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.AuthenticationException;
@@ -12,6 +13,7 @@ import java.lang.reflect.Method;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class JwtAuthenticationFailureHandlerTest {
@@ -44,6 +46,21 @@ class JwtAuthenticationFailureHandlerTest {
 
 	}
 
+	@Test
+	void testOnAuthenticationFailureWithSaturatedEncoderExpectedServiceUnavailable() throws Exception {
+		HttpServletRequest req = mock(HttpServletRequest.class);
+		HttpServletResponse res = mock(HttpServletResponse.class);
+		PrintWriter printWriter = mock(PrintWriter.class);
+		JwtAuthenticationFailureHandler failureHandler = new JwtAuthenticationFailureHandler();
+
+		when(res.getWriter()).thenReturn(printWriter);
+
+		failureHandler.onAuthenticationFailure(req, res, new PasswordEncoderSaturatedException("saturated"));
+
+		verify(res).setStatus(503);
+		verify(res).setHeader("Retry-After", "1");
+	}
+
 	@Test
 	void testJsonExpectedNotEmpty() throws Exception {
 		JwtAuthenticationFailureHandler failureHandler = new JwtAuthenticationFailureHandler();
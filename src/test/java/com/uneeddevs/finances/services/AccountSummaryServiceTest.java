@@ -0,0 +1,129 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.dto.AccountDailySummaryDTO;
+import com.uneeddevs.finances.dto.AccountSummaryDTO;
+import com.uneeddevs.finances.enums.ProfileRole;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.AccountSummaryService;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.service.impl.AccountSummaryServiceImpl;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import com.uneeddevs.finances.util.UserUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountSummaryServiceImpl.class, BankAccountServiceImpl.class, OwnershipResolver.class, SimpleMeterRegistry.class})
+class AccountSummaryServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 10, 5);
+    private static final LocalDate SECOND_DAY = LocalDate.of(2021, 10, 6);
+    private static final LocalDate THIRD_DAY = LocalDate.of(2021, 10, 7);
+
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() {
+        final User user = userRepository.save(new User("name", "summary@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, "Account 1", user));
+        apply(FIRST_DAY, BigDecimal.valueOf(100), BigDecimal.ZERO);
+        apply(THIRD_DAY, BigDecimal.ZERO, BigDecimal.valueOf(30));
+        apply(FIRST_DAY, BigDecimal.ZERO, BigDecimal.valueOf(20));
+        apply(SECOND_DAY, BigDecimal.valueOf(5), BigDecimal.ZERO);
+        testEntityManager.clear();
+    }
+
+    @Test
+    void testApplyOutOfOrderExpectedClosingBalancePerDay() {
+        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+
+            final List<AccountDailySummaryDTO> days = accountSummaryService
+                    .summarize(bankAccount.getId(), FIRST_DAY, THIRD_DAY).days();
+
+            assertEquals(List.of(FIRST_DAY, SECOND_DAY, THIRD_DAY), days.stream().map(AccountDailySummaryDTO::date).toList(),
+                    "Expected one summary per day with movements");
+            assertEquals(0, BigDecimal.valueOf(80).compareTo(days.get(0).closingBalance()), "First day closing balance");
+            assertEquals(2L, days.get(0).movementCount(), "First day has two movements");
+            assertEquals(0, BigDecimal.valueOf(85).compareTo(days.get(1).closingBalance()), "Second day closing balance");
+            assertEquals(0, BigDecimal.valueOf(55).compareTo(days.get(2).closingBalance()), "Third day closing balance");
+        }
+    }
+
+    @Test
+    void testSummarizePeriodExpectedOpeningAndClosingBalance() {
+        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+
+            final AccountSummaryDTO summary = accountSummaryService.summarize(bankAccount.getId(), SECOND_DAY, SECOND_DAY);
+
+            assertEquals(0, BigDecimal.valueOf(80).compareTo(summary.openingBalance()), "Opening balance has to be previous closing");
+            assertEquals(0, BigDecimal.valueOf(5).compareTo(summary.inputTotal()), "Expected period input total");
+            assertEquals(0, BigDecimal.ZERO.compareTo(summary.outputTotal()), "Expected period output total");
+            assertEquals(1L, summary.movementCount(), "Expected period movement count");
+            assertEquals(0, BigDecimal.valueOf(85).compareTo(summary.closingBalance()), "Expected period closing balance");
+        }
+    }
+
+    @Test
+    void testSummarizePeriodWithoutMovementsExpectedUnchangedBalance() {
+        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+
+            final AccountSummaryDTO summary = accountSummaryService.summarize(bankAccount.getId(),
+                    THIRD_DAY.plusDays(1), THIRD_DAY.plusDays(10));
+
+            assertTrue(summary.days().isEmpty(), "Period without movements has no days");
+            assertEquals(0, BigDecimal.valueOf(55).compareTo(summary.openingBalance()), "Opening balance has to be current balance");
+            assertEquals(0, BigDecimal.valueOf(55).compareTo(summary.closingBalance()), "Closing balance has to be current balance");
+        }
+    }
+
+    @Test
+    void testSummarizeInvertedPeriodExpectedIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> accountSummaryService.summarize(bankAccount.getId(), THIRD_DAY, FIRST_DAY));
+    }
+
+    private void apply(LocalDate date, BigDecimal inputTotal, BigDecimal outputTotal) {
+        bankAccountService.addBalance(bankAccount.getId(), inputTotal.subtract(outputTotal));
+        accountSummaryService.apply(bankAccount.getId(), date, inputTotal, outputTotal, 1);
+    }
+}
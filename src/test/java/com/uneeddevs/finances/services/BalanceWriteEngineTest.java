@@ -0,0 +1,184 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.service.engine.BalanceWriteEngine;
+import com.uneeddevs.finances.service.engine.BalanceWriteEngineSaturatedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceWriteEngineTest {
+
+    private final List<List<Movement>> writes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BalanceWriteEngine balanceWriteEngine;
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() throws Exception {
+        bankAccount = BankAccountMock.mock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(balanceWriteEngine != null)
+            balanceWriteEngine.shutdown();
+    }
+
+    @Test
+    void testPendingMovementsOfAccountExpectedSingleWrite() throws Exception {
+        balanceWriteEngine = new BalanceWriteEngine(2, 100, 100, 1000, (bankAccountId, movements) -> {
+            writes.add(movements);
+            writing.countDown();
+            awaitRelease();
+        });
+
+        final CompletableFuture<Movement> first = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final List<CompletableFuture<Movement>> pending = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            pending.add(balanceWriteEngine.submit(movement(MovementType.INPUT)));
+        release.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<Movement> future : pending)
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        assertEquals(2, writes.size(), "Movements queued during a write have to be coalesced");
+        assertEquals(10, writes.get(1).size(), "Every queued movement has to be in the coalesced write");
+    }
+
+    @Test
+    void testMaxBatchSizeExpectedSplitWrites() throws Exception {
+        balanceWriteEngine = new BalanceWriteEngine(1, 4, 100, 1000, (bankAccountId, movements) -> {
+            writes.add(movements);
+            writing.countDown();
+            awaitRelease();
+        });
+
+        balanceWriteEngine.submit(movement(MovementType.INPUT));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final List<CompletableFuture<Movement>> pending = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            pending.add(balanceWriteEngine.submit(movement(MovementType.INPUT)));
+        release.countDown();
+        for (CompletableFuture<Movement> future : pending)
+            future.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1, 4, 4, 2), writes.stream().map(List::size).toList());
+    }
+
+    @Test
+    void testRejectedWriteExpectedRetriedOneByOne() throws Exception {
+        final Movement rejected = movement(MovementType.OUTPUT);
+        balanceWriteEngine = new BalanceWriteEngine(1, 100, 100, 1000, (bankAccountId, movements) -> {
+            writing.countDown();
+            awaitRelease();
+            if(movements.contains(rejected))
+                throw new IllegalArgumentException("Value to subtract cannot be greater than balance");
+            writes.add(movements);
+        });
+
+        balanceWriteEngine.submit(movement(MovementType.INPUT));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<Movement> before = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        final CompletableFuture<Movement> failed = balanceWriteEngine.submit(rejected);
+        final CompletableFuture<Movement> after = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        release.countDown();
+
+        assertNotNull(before.get(5, TimeUnit.SECONDS));
+        assertNotNull(after.get(5, TimeUnit.SECONDS));
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        assertEquals(List.of(1, 1, 1), writes.stream().map(List::size).toList(),
+                "Only the rejected movement can fail");
+    }
+
+    @Test
+    void testFailedWriteAfterInsertExpectedWholeGroupFailedWithoutRetry() throws Exception {
+        final List<Integer> attempts = new CopyOnWriteArrayList<>();
+        balanceWriteEngine = new BalanceWriteEngine(1, 100, 100, 1000, (bankAccountId, movements) -> {
+            attempts.add(movements.size());
+            writing.countDown();
+            awaitRelease();
+            if(movements.size() > 1)
+                throw new IllegalStateException("Summary update failed");
+        });
+
+        balanceWriteEngine.submit(movement(MovementType.INPUT));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<Movement> first = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        final CompletableFuture<Movement> second = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        release.countDown();
+
+        for (CompletableFuture<Movement> future : List.of(first, second)) {
+            final ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(List.of(1, 2), attempts, "Movements possibly inserted cannot be written again");
+    }
+
+    @Test
+    void testFullQueueExpectedSaturatedException() throws Exception {
+        balanceWriteEngine = new BalanceWriteEngine(1, 1, 1, 10, (bankAccountId, movements) -> {
+            writing.countDown();
+            awaitRelease();
+        });
+
+        final CompletableFuture<Movement> first = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<Movement> queued = balanceWriteEngine.submit(movement(MovementType.INPUT));
+        final Movement rejected = movement(MovementType.INPUT);
+
+        assertThrows(BalanceWriteEngineSaturatedException.class, () -> balanceWriteEngine.submit(rejected));
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmitAfterShutdownExpectedIllegalStateException() throws Exception {
+        balanceWriteEngine = new BalanceWriteEngine(1, 100, 100, 1000, (bankAccountId, movements) -> writes.add(movements));
+        balanceWriteEngine.shutdown();
+        final Movement movement = movement(MovementType.INPUT);
+
+        assertThrows(IllegalStateException.class, () -> balanceWriteEngine.submit(movement));
+        assertTrue(writes.isEmpty());
+    }
+
+    @Test
+    void testInvalidSizesExpectedIllegalArgumentException() {
+        final BalanceWriteEngine.BatchWriter writer = (bankAccountId, movements) -> writes.add(movements);
+
+        assertThrows(IllegalArgumentException.class, () -> new BalanceWriteEngine(0, 100, 100, 1000, writer));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceWriteEngine(1, 0, 100, 1000, writer));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceWriteEngine(1, 100, 0, 1000, writer));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceWriteEngine(1, 100, 100, -1, writer));
+    }
+
+    private Movement movement(MovementType movementType) {
+        return new Movement(movementType, BigDecimal.ONE, bankAccount);
+    }
+
+    private void awaitRelease() {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,22 +1,28 @@
 package com.uneeddevs.finances.services;
 
 
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
 import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.mocks.BankAccountMock;
 import com.uneeddevs.finances.mocks.UserMock;
 import com.uneeddevs.finances.model.BankAccount;
 import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
 import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.BankAccountService;
-import com.uneeddevs.finances.service.UserService;
 import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
 import com.uneeddevs.finances.util.UserUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -31,13 +37,23 @@ class BankAccountServiceTest {
 
     private BankAccountService bankAccountService;
     private BankAccountRepository bankAccountRepository;
-    private UserService userService;
+    private MovementRepository movementRepository;
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+    private OwnershipResolver ownershipResolver;
+    private EntityManagerFactory entityManagerFactory;
+    private Cache cache;
 
     @BeforeEach
     void setup() {
-        userService = mock(UserService.class);
         bankAccountRepository = mock(BankAccountRepository.class);
-        bankAccountService = new BankAccountServiceImpl(bankAccountRepository, userService);
+        movementRepository = mock(MovementRepository.class);
+        accountDailySummaryRepository = mock(AccountDailySummaryRepository.class);
+        ownershipResolver = mock(OwnershipResolver.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        bankAccountService = new BankAccountServiceImpl(bankAccountRepository, movementRepository, accountDailySummaryRepository,
+                ownershipResolver, entityManagerFactory, new SimpleMeterRegistry(), 1000L, 60000L);
     }
 
     @Test
@@ -54,46 +70,40 @@ class BankAccountServiceTest {
     }
 
     @Test
-    void testFindByIdExpectedSuccess() throws Exception {
-        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            BankAccount bankAccountMock = BankAccountMock.mock();
-            UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.of(bankAccountMock));
+    void testAddBalanceExpectedSuccess() {
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-            BankAccount bankAccount = bankAccountService.findById(id);
+        when(bankAccountRepository.addBalance(uuid, BigDecimal.TEN)).thenReturn(1);
 
-            assertNotNull(bankAccount, "Persist bank account cannot be null");
-            verify(bankAccountRepository).findById(id);
-        }
+        assertDoesNotThrow(() -> bankAccountService.addBalance(uuid, BigDecimal.TEN));
+        verify(bankAccountRepository).addBalance(uuid, BigDecimal.TEN);
+        verify(cache).evict(BankAccount.class, uuid);
     }
 
     @Test
-    void testFindByIdExpectedAuthenticationFailException() throws Exception {
-        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            BankAccount bankAccountMock = BankAccountMock.mock();
-            UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    void testAddBalanceWithInsufficientBalanceExpectedIllegalArgumentException() {
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+        BigDecimal value = BigDecimal.TEN.negate();
 
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.of(bankAccountMock));
-
-            assertThrows(AuthenticationFailException.class, () -> bankAccountService.findById(id));
+        when(bankAccountRepository.addBalance(uuid, value)).thenReturn(0);
 
-            verify(bankAccountRepository).findById(id);
-        }
+        assertThrows(IllegalArgumentException.class, () -> bankAccountService.addBalance(uuid, value),
+                "Expected throws IllegalArgumentException");
+        verify(bankAccountRepository).addBalance(uuid, value);
     }
 
     @Test
-    void testFindByIdAuthenticationFailException() {
+    void testFindByIdExpectedSuccess() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+            BankAccount bankAccountMock = BankAccountMock.mock();
             UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.empty());
+            when(bankAccountRepository.findById(id)).thenReturn(Optional.of(bankAccountMock));
 
-            assertThrows(AuthenticationFailException.class, () -> bankAccountService.findById(id));
+            BankAccount bankAccount = bankAccountService.findById(id);
 
+            assertNotNull(bankAccount, "Persist bank account cannot be null");
             verify(bankAccountRepository).findById(id);
         }
     }
@@ -112,6 +122,17 @@ class BankAccountServiceTest {
         }
     }
 
+    @Test
+    void testFindVersionNoResultException() {
+        UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+        when(bankAccountRepository.findVersionById(id)).thenReturn(Optional.empty());
+
+        assertThrows(NoResultException.class, () -> bankAccountService.findVersion(id));
+
+        verify(bankAccountRepository).findVersionById(id);
+        verify(bankAccountRepository, never()).findById(id);
+    }
+
     @Test
     void testDeleteByIdExpectedSuccess() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
@@ -126,7 +147,10 @@ class BankAccountServiceTest {
             assertTrue(deleted, "Expected deleted");
 
             verify(bankAccountRepository).findById(id);
+            verify(movementRepository).existsByBankAccountId(id);
+            verify(accountDailySummaryRepository).deleteByBankAccountId(id);
             verify(bankAccountRepository).delete(bankAccountMock);
+            verify(ownershipResolver).evict(id);
         }
 
     }
@@ -144,31 +168,12 @@ class BankAccountServiceTest {
 
 
             verify(bankAccountRepository).findById(id);
+            verify(accountDailySummaryRepository, never()).deleteByBankAccountId(id);
             verify(bankAccountRepository, never()).delete(any(BankAccount.class));
         }
     }
 
 
-    @Test
-    void testDeleteByIdExpectedAuthenticationFailException() {
-        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.empty());
-
-            assertThrows(AuthenticationFailException.class,
-                    () -> bankAccountService.deleteById(id));
-
-
-            verify(bankAccountRepository).findById(id);
-            verify(bankAccountRepository, never()).delete(any(BankAccount.class));
-        }
-    }
-
-
-
-
     @Test
     void testDeleteByIdExpectedError() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
@@ -197,34 +202,13 @@ class BankAccountServiceTest {
             UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
 
+            when(bankAccountRepository.rename(id, "Updated")).thenReturn(1);
             when(bankAccountRepository.findById(id)).thenReturn(Optional.of(bankAccountMock));
 
-            bankAccountService.update(bankAccountUpdate);
-
-            assertEquals("Updated", bankAccountMock.getName(), "Expected update name");
+            assertEquals(bankAccountMock, bankAccountService.update(bankAccountUpdate), "Expected updated account");
 
-            verify(bankAccountRepository).findById(id);
-            verify(bankAccountRepository).save(bankAccountMock);
-        }
-    }
-
-    @Test
-    void testUpdatedWithExistentAccountAuthenticationFailException() throws Exception {
-        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            BankAccount bankAccountMock = BankAccountMock.mock();
-            BankAccount bankAccountUpdate = BankAccountMock.mock();
-            bankAccountUpdate.setName("Updated");
-            UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-
-
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.of(bankAccountMock));
-
-            assertThrows(AuthenticationFailException.class , () ->bankAccountService.update(bankAccountUpdate));
-
-
-            verify(bankAccountRepository).findById(id);
-            verify(bankAccountRepository, never()).save(bankAccountMock);
+            verify(bankAccountRepository).rename(id, "Updated");
+            verify(bankAccountRepository, never()).save(any());
         }
     }
 
@@ -240,106 +224,139 @@ class BankAccountServiceTest {
             UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
 
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.empty());
+            when(bankAccountRepository.rename(id, "Updated")).thenReturn(0);
 
             assertThrows(NoResultException.class,
                     () -> bankAccountService.update(bankAccountUpdate));
-            verify(bankAccountRepository).findById(id);
-            verify(bankAccountRepository, never()).save(bankAccountMock);
+            verify(bankAccountRepository, never()).findById(id);
+            verify(bankAccountRepository, never()).save(any());
         }
     }
 
     @Test
-    void testUpdatedAuthenticationFailException() throws Exception {
+    void testFindByUserExpectedSuccess() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            mockedUserUtil.when(UserUtil::authenticatedUUID)
-                    .thenReturn(UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa7"));
-            BankAccount bankAccountMock = BankAccountMock.mock();
-            BankAccount bankAccountUpdate = BankAccountMock.mock();
-            bankAccountUpdate.setName("Updated");
-            UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+            BankAccount bankAccount = BankAccountMock.mock();
+            List<BankAccountResponseDTO> bankAccountList = Collections.singletonList(bankAccount.toBankAccountResponseDTO());
+            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
+            when(bankAccountRepository.findResponsesByUserId(uuid)).thenReturn(bankAccountList);
 
-            when(bankAccountRepository.findById(id)).thenReturn(Optional.empty());
+            List<BankAccountResponseDTO> methodResponse = bankAccountService.findByUser(uuid);
 
-            assertThrows(AuthenticationFailException.class,
-                    () -> bankAccountService.update(bankAccountUpdate));
-            verify(bankAccountRepository).findById(id);
-            verify(bankAccountRepository, never()).save(bankAccountMock);
+            assertFalse(methodResponse.isEmpty(), "Bank account list cannot be empty");
+
+            verify(bankAccountRepository).findResponsesByUserId(uuid);
+            verify(bankAccountRepository, never()).findById(any(UUID.class));
         }
+
     }
 
     @Test
-    void testFindByUserExpectedSuccess() throws Exception {
+    void testFindByUserExpectedNoResultException() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
             mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            BankAccount bankAccount = BankAccountMock.mock();
-            List<BankAccount> bankAccountList = Collections.singletonList(bankAccount);
-            User user = UserMock.mock(false);
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-            when(userService.findById(uuid)).thenReturn(user);
-            when(bankAccountRepository.findByUser(user)).thenReturn(bankAccountList);
-
-            List<BankAccount> methodResponse = bankAccountService.findByUser(user);
+            when(bankAccountRepository.findResponsesByUserId(uuid)).thenReturn(Collections.emptyList());
 
-            assertFalse(methodResponse.isEmpty(), "Bank account list cannot be empty");
+            assertThrows(NoResultException.class, () -> bankAccountService.findByUser(uuid));
 
-            verify(userService).findById(uuid);
-            verify(bankAccountRepository).findByUser(user);
+            verify(bankAccountRepository).findResponsesByUserId(uuid);
         }
+    }
 
+    @Test
+    void testFindByUserExpectedAuthenticationFailException() throws Exception {
+        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
+            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+
+            assertThrows(AuthenticationFailException.class, () -> bankAccountService.findByUser(uuid));
+
+            verify(bankAccountRepository, never()).findResponsesByUserId(uuid);
+        }
     }
 
     @Test
-    void testFindByUserWithNonExistentUserExpectedNoResultException() throws Exception {
+    void testFindByUserTwiceExpectedSingleQuery() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
             mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            User user = UserMock.mock(false);
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+            BankAccount bankAccount = BankAccountMock.mock();
+            UUID uuid = bankAccount.getUserId();
 
-            when(userService.findById(uuid)).thenThrow(new NoResultException("No user"));
+            when(bankAccountRepository.findResponsesByUserId(uuid))
+                    .thenReturn(Collections.singletonList(bankAccount.toBankAccountResponseDTO()));
 
-            assertThrows(NoResultException.class, () -> bankAccountService.findByUser(user));
+            assertEquals(bankAccountService.findByUser(uuid), bankAccountService.findByUser(uuid));
+            verify(bankAccountRepository).findResponsesByUserId(uuid);
+        }
+    }
 
-            verify(userService).findById(uuid);
-            verify(bankAccountRepository, never()).findByUser(user);
+    @Test
+    void testAddBalanceExpectedOwnerAccountsEvicted() throws Exception {
+        try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+            BankAccount bankAccount = BankAccountMock.mock();
+            UUID userId = bankAccount.getUserId();
+            UUID otherUserId = UUID.randomUUID();
+
+            when(bankAccountRepository.findResponsesByUserId(any(UUID.class)))
+                    .thenReturn(Collections.singletonList(bankAccount.toBankAccountResponseDTO()));
+            when(bankAccountRepository.addBalance(bankAccount.getId(), BigDecimal.TEN)).thenReturn(1);
+            when(ownershipResolver.accountOwner(bankAccount.getId())).thenReturn(Optional.of(userId));
+            bankAccountService.findByUser(userId);
+            bankAccountService.findByUser(otherUserId);
+
+            bankAccountService.addBalance(bankAccount.getId(), BigDecimal.TEN);
+            bankAccountService.findByUser(userId);
+            bankAccountService.findByUser(otherUserId);
+
+            verify(bankAccountRepository, times(2)).findResponsesByUserId(userId);
+            verify(bankAccountRepository).findResponsesByUserId(otherUserId);
         }
     }
 
     @Test
-    void testFindByUserExpectedNoResultException() throws Exception {
+    void testRejectedAddBalanceExpectedAccountsKept() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
             mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            User user = UserMock.mock(false);
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+            BankAccount bankAccount = BankAccountMock.mock();
+            UUID userId = bankAccount.getUserId();
+            BigDecimal value = BigDecimal.TEN.negate();
 
-            when(userService.findById(uuid)).thenReturn(user);
-            when(bankAccountRepository.findByUser(user)).thenReturn(Collections.emptyList());
+            when(bankAccountRepository.findResponsesByUserId(userId))
+                    .thenReturn(Collections.singletonList(bankAccount.toBankAccountResponseDTO()));
+            when(bankAccountRepository.addBalance(bankAccount.getId(), value)).thenReturn(0);
+            bankAccountService.findByUser(userId);
 
-            assertThrows(NoResultException.class, () -> bankAccountService.findByUser(user));
+            assertThrows(IllegalArgumentException.class, () -> bankAccountService.addBalance(bankAccount.getId(), value));
+            bankAccountService.findByUser(userId);
 
-            verify(userService).findById(uuid);
-            verify(bankAccountRepository).findByUser(user);
+            verify(bankAccountRepository).findResponsesByUserId(userId);
+            verifyNoInteractions(ownershipResolver);
         }
     }
 
     @Test
-    void testFindByUserExpectedAuthenticationFailException() throws Exception {
+    void testSaveAndDeleteExpectedOwnerAccountsEvicted() throws Exception {
         try (MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            User user = UserMock.mock(false);
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
+            BankAccount bankAccount = BankAccountMock.mock();
+            UUID userId = bankAccount.getUserId();
 
-            when(userService.findById(uuid)).thenReturn(user);
-            when(bankAccountRepository.findByUser(user)).thenReturn(Collections.emptyList());
+            when(bankAccountRepository.findResponsesByUserId(userId))
+                    .thenReturn(Collections.singletonList(bankAccount.toBankAccountResponseDTO()));
+            when(bankAccountRepository.findById(bankAccount.getId())).thenReturn(Optional.of(bankAccount));
+            bankAccountService.findByUser(userId);
 
-            assertThrows(AuthenticationFailException.class, () -> bankAccountService.findByUser(user));
+            bankAccountService.save(bankAccount);
+            bankAccountService.findByUser(userId);
+            bankAccountService.deleteById(bankAccount.getId());
+            bankAccountService.findByUser(userId);
 
-            verify(userService, never()).findById(uuid);
-            verify(bankAccountRepository, never()).findByUser(user);
+            verify(bankAccountRepository, times(3)).findResponsesByUserId(userId);
         }
     }
-
 }
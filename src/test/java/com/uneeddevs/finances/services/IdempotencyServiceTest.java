@@ -0,0 +1,175 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.mocks.MovementMock;
+import com.uneeddevs.finances.model.IdempotencyRecord;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.IdempotencyRecordRepository;
+import com.uneeddevs.finances.service.IdempotencyService;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.impl.IdempotencyServiceImpl;
+import com.uneeddevs.finances.util.UserUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final String KEY = "2c3e9a4e-5f4b-4f3a-9a55-0f1d3c7b6a10";
+
+    private MovementService movementService;
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        movementService = mock(MovementService.class);
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+        transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testRepeatedKeyExpectedFirstMovementReplayed() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(true);
+        when(movementService.save(movement)).thenReturn(movement);
+        when(movementService.findById(movement.getId())).thenReturn(movement);
+
+        assertSame(movement, idempotencyService.save(KEY, movement));
+        assertSame(movement, idempotencyService.save(KEY, MovementMock.mock(true)));
+
+        verify(movementService).save(any(Movement.class));
+        verify(movementService).findById(movement.getId());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void testRepeatedKeyWithDifferentRequestExpectedIllegalArgumentException() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(true);
+        when(movementService.save(movement)).thenReturn(movement);
+        idempotencyService.save(KEY, movement);
+        final Movement output = MovementMock.mock(false);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.save(KEY, output));
+        verify(movementService).save(any(Movement.class));
+    }
+
+    @Test
+    void testSameKeyOfAnotherUserExpectedNewMovement() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(true);
+        when(movementService.save(movement)).thenReturn(movement);
+
+        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
+            mockedUserUtil.when(UserUtil::authenticatedUUID).thenReturn(UUID.randomUUID());
+            idempotencyService.save(KEY, movement);
+            mockedUserUtil.when(UserUtil::authenticatedUUID).thenReturn(UUID.randomUUID());
+            idempotencyService.save(KEY, movement);
+        }
+
+        verify(movementService, times(2)).save(movement);
+        verify(movementService, never()).findById(any());
+    }
+
+    @Test
+    void testFailedSaveExpectedKeyNotStored() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(false);
+        when(movementService.save(movement))
+                .thenThrow(new IllegalArgumentException("Insufficient balance"))
+                .thenReturn(movement);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.save(KEY, movement));
+        assertSame(movement, idempotencyService.save(KEY, movement));
+        verify(movementService, times(2)).save(movement);
+    }
+
+    @Test
+    void testInvalidKeyExpectedIllegalArgumentException() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(true);
+        final String longKey = "k".repeat(101);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.save(" ", movement));
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.save(longKey, movement));
+        verifyNoInteractions(movementService);
+    }
+
+    @Test
+    void testConcurrentRequestsWithSameKeyExpectedSingleSave() throws Exception {
+        final IdempotencyService idempotencyService = idempotencyService(false);
+        final Movement movement = MovementMock.mock(true);
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(movementService.findById(movement.getId())).thenReturn(movement);
+        when(movementService.save(any(Movement.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return movement;
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<Movement> first = executor.submit(() -> idempotencyService.save(KEY, MovementMock.mock(true)));
+            assertTrue(saving.await(5, TimeUnit.SECONDS));
+            final Future<Movement> second = executor.submit(() -> idempotencyService.save(KEY, MovementMock.mock(true)));
+            final Future<Movement> third = executor.submit(() -> idempotencyService.save(KEY, MovementMock.mock(true)));
+            release.countDown();
+
+            assertSame(movement, first.get(5, TimeUnit.SECONDS));
+            assertSame(movement, second.get(5, TimeUnit.SECONDS));
+            assertSame(movement, third.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(movementService).save(any(Movement.class));
+    }
+
+    @Test
+    void testPersistentStoreExpectedRecordSavedAndReplayedFromDatabase() throws Exception {
+        final Movement movement = MovementMock.mock(true);
+        when(movementService.save(movement)).thenReturn(movement);
+        when(movementService.findById(movement.getId())).thenReturn(movement);
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndCreatedAtAfter(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        idempotencyService(true).save(KEY, movement);
+
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(idempotencyRecordRepository).deleteExpired(anyString(), any(LocalDateTime.class));
+
+        final IdempotencyRecord stored = new IdempotencyRecord("null:" + KEY,
+                "INPUT|10|" + BankAccountMock.mock().getId(), movement.getId());
+        when(idempotencyRecordRepository.findByIdempotencyKeyAndCreatedAtAfter(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+
+        final Movement sameMovement = new Movement(MovementType.INPUT, new BigDecimal("10.00"), BankAccountMock.mock());
+        assertSame(movement, idempotencyService(true).save(KEY, sameMovement));
+        verify(movementService).save(any(Movement.class));
+    }
+
+    private IdempotencyService idempotencyService(boolean persistent) {
+        return new IdempotencyServiceImpl(movementService, idempotencyRecordRepository, transactionTemplate,
+                1000L, 60000L, persistent);
+    }
+}
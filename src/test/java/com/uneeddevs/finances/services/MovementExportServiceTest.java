@@ -0,0 +1,94 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.enums.ExportFormat;
+import com.uneeddevs.finances.mocks.BankAccountMock;
+import com.uneeddevs.finances.mocks.MovementMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.security.exception.AuthenticationFailException;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.MovementExportService;
+import com.uneeddevs.finances.service.impl.MovementExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MovementExportServiceTest {
+
+    private static final UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    private static final LocalDateTime START = LocalDateTime.MIN;
+    private static final LocalDateTime END = LocalDateTime.MAX;
+
+    private MovementExportService movementExportService;
+    private MovementRepository movementRepository;
+    private BankAccountService bankAccountService;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        movementRepository = mock(MovementRepository.class);
+        bankAccountService = mock(BankAccountService.class);
+        entityManager = mock(EntityManager.class);
+        movementExportService = new MovementExportServiceImpl(movementRepository, bankAccountService, entityManager,
+                Jackson2ObjectMapperBuilder.json().build(), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testExportNdjsonExpectedOneLinePerMovement() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        Movement input = MovementMock.mock(true);
+        Movement output = MovementMock.mock(false);
+        Stream<Movement> movements = Stream.of(input, output);
+
+        when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
+        when(movementRepository.streamByPeriodAndBankAccount(START, END, bankAccount)).thenReturn(movements);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        movementExportService.export(uuid, START, END, ExportFormat.NDJSON).writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length, "Expected one line per movement");
+        assertTrue(lines[0].contains("\"movementType\":\"INPUT\""), "First line has to be the input movement");
+        assertTrue(lines[1].contains("\"movementType\":\"OUTPUT\""), "Second line has to be the output movement");
+        verify(entityManager).detach(input);
+        verify(entityManager).detach(output);
+    }
+
+    @Test
+    void testExportCsvExpectedHeaderAndRows() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        Movement input = MovementMock.mock(true);
+
+        when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
+        when(movementRepository.streamByPeriodAndBankAccount(START, END, bankAccount)).thenReturn(Stream.of(input));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        movementExportService.export(uuid, START, END, ExportFormat.CSV).writeTo(outputStream);
+
+        assertEquals("id,movementType,value,movementDate\n" + input.getId() + ",INPUT,10,2021-10-06T20:43:03\n",
+                outputStream.toString(StandardCharsets.UTF_8), "Expected header and one row");
+        verify(entityManager).detach(input);
+    }
+
+    @Test
+    void testExportForbiddenAccountExpectedAuthenticationFailException() {
+        when(bankAccountService.findById(uuid)).thenThrow(new AuthenticationFailException("Forbidden"));
+
+        assertThrows(AuthenticationFailException.class,
+                () -> movementExportService.export(uuid, START, END, ExportFormat.CSV));
+        verify(movementRepository, never()).streamByPeriodAndBankAccount(any(), any(), any());
+    }
+
+}
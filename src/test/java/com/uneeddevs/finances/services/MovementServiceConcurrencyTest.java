@@ -0,0 +1,159 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.config.BalanceWriteEngineConfig;
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.model.AccountDailySummary;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.service.impl.AccountSummaryServiceImpl;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import com.uneeddevs.finances.service.impl.MovementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MovementServiceImpl.class, MovementWriter.class, BalanceWriteEngineConfig.class, BankAccountServiceImpl.class, AccountSummaryServiceImpl.class, OwnershipResolver.class,
+        SimpleMeterRegistry.class})
+class MovementServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVEMENTS_PER_THREAD = 25;
+
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private MovementService movementService;
+    @Autowired
+    private MovementRepository movementRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new User("name", "concurrency@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, "Account 1", user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountDailySummaryRepository.deleteAll();
+        movementRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentInputMovementsExpectedNoLostUpdates() throws Exception {
+        final List<Boolean> results = postConcurrently(MovementType.INPUT);
+
+        final int movements = THREADS * MOVEMENTS_PER_THREAD;
+        assertEquals(movements, results.stream().filter(Boolean::booleanValue).count(),
+                "Every movement has to be accepted");
+        assertEquals(0, new BigDecimal(movements).compareTo(balance()),
+                "Balance has to account for every movement");
+        assertEquals(movements, movementRepository.count(), "Every movement has to be persisted");
+        assertSummaryMatchesBalance(movements);
+    }
+
+    @Test
+    void testConcurrentOutputMovementsExpectedBalanceNeverNegative() throws Exception {
+        final int available = THREADS * MOVEMENTS_PER_THREAD / 2;
+        bankAccount = bankAccountRepository.save(new BankAccount(new BigDecimal(available), "Account 2", user));
+
+        final List<Boolean> results = postConcurrently(MovementType.OUTPUT);
+
+        assertEquals(available, results.stream().filter(Boolean::booleanValue).count(),
+                "Only movements covered by the balance can be accepted");
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance()), "Balance has to be fully consumed");
+        assertEquals(available, movementRepository.count(), "Rejected movements cannot be persisted");
+        assertSummaryMatchesBalance(available);
+    }
+
+    private List<Boolean> postConcurrently(MovementType movementType) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS * MOVEMENTS_PER_THREAD; i++)
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+                    try {
+                        movementService.save(new Movement(movementType, BigDecimal.ONE, bankAccount));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            start.countDown();
+            final List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures)
+                results.add(future.get(30, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void assertSummaryMatchesBalance(long movements) {
+        final List<AccountDailySummary> summaries = accountDailySummaryRepository.findAll().stream()
+                .filter(summary -> summary.getId().getBankAccountId().equals(bankAccount.getId()))
+                .sorted(Comparator.comparing(summary -> summary.getId().getSummaryDate()))
+                .toList();
+        assertEquals(movements, summaries.stream().mapToLong(AccountDailySummary::getMovementCount).sum(),
+                "Daily summaries have to count every accepted movement");
+        assertEquals(0, balance().compareTo(summaries.get(summaries.size() - 1).getClosingBalance()),
+                "Last closing balance has to be the account balance");
+    }
+
+    private BigDecimal balance() {
+        return bankAccountRepository.findById(bankAccount.getId()).orElseThrow().getBalance();
+    }
+
+}
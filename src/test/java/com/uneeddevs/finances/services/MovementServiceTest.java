@@ -1,23 +1,43 @@
 package com.uneeddevs.finances.services;
 
+import com.uneeddevs.finances.dto.MovementBatchResultDTO;
+import com.uneeddevs.finances.dto.MovementCursorDTO;
+import com.uneeddevs.finances.dto.MovementKeysetPageDTO;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.MovementTransferResponseDTO;
+import com.uneeddevs.finances.enums.MovementType;
 import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.mocks.BankAccountMock;
 import com.uneeddevs.finances.mocks.MovementMock;
 import com.uneeddevs.finances.model.BankAccount;
 import com.uneeddevs.finances.model.Movement;
 import com.uneeddevs.finances.repository.MovementRepository;
-import com.uneeddevs.finances.security.exception.AuthenticationFailException;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.AccountSummaryService;
 import com.uneeddevs.finances.service.BankAccountService;
 import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
 import com.uneeddevs.finances.service.impl.MovementServiceImpl;
 import com.uneeddevs.finances.util.UserUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.NoResultException;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -29,15 +49,28 @@ import static org.mockito.Mockito.*;
 
 class MovementServiceTest {
 
+    private static final Pageable PAGEABLE = PageRequest.of(0, 50);
+
     private MovementService movementService;
     private MovementRepository movementRepository;
     private BankAccountService bankAccountService;
+    private OwnershipResolver ownershipResolver;
+    private AccountSummaryService accountSummaryService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setup() {
+        meterRegistry = new SimpleMeterRegistry();
         movementRepository = mock(MovementRepository.class);
         bankAccountService = mock(BankAccountService.class);
-        movementService = new MovementServiceImpl(movementRepository, bankAccountService);
+        ownershipResolver = mock(OwnershipResolver.class);
+        when(ownershipResolver.canAccessAccount(any())).thenReturn(true);
+        when(ownershipResolver.accountOwner(any())).thenReturn(Optional.of(UUID.randomUUID()));
+        accountSummaryService = mock(AccountSummaryService.class);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        movementService = new MovementServiceImpl(movementRepository, bankAccountService, ownershipResolver, transactionTemplate,
+                new MovementWriter(movementRepository, bankAccountService, accountSummaryService, transactionTemplate, meterRegistry),
+                Optional.empty());
     }
 
     @Test
@@ -47,17 +80,16 @@ class MovementServiceTest {
         Movement movement = MovementMock.mock(true);
         UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-        when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
         when(movementRepository.save(movement)).thenReturn(movement);
-        when(bankAccountService.save(bankAccount)).thenReturn(bankAccount);
 
         movementService.save(movement);
 
-        verify(bankAccountService).findById(uuid);
+        verify(ownershipResolver).accountOwner(uuid);
+        verify(bankAccountService, never()).findById(any());
+        verify(bankAccountService).addBalance(uuid, BigDecimal.TEN);
         verify(movementRepository).save(movement);
-        verify(bankAccountService).save(bankAccount);
-
-        assertEquals(BigDecimal.TEN, bankAccount.getBalance(), "Balance has to be 10.0");
+        verify(accountSummaryService).apply(uuid, LocalDate.of(2021, 10, 6), BigDecimal.TEN, BigDecimal.ZERO, 1L);
+        verify(bankAccountService, never()).save(bankAccount);
 
     }
 
@@ -69,18 +101,48 @@ class MovementServiceTest {
         Movement movement = MovementMock.mock(false);
         UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-        when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
         when(movementRepository.save(movement)).thenReturn(movement);
-        when(bankAccountService.save(bankAccount)).thenReturn(bankAccount);
 
         movementService.save(movement);
 
-        verify(bankAccountService).findById(uuid);
+        verify(ownershipResolver).accountOwner(uuid);
+        verify(bankAccountService, never()).findById(any());
+        verify(bankAccountService).addBalance(uuid, BigDecimal.TEN.negate());
         verify(movementRepository).save(movement);
-        verify(bankAccountService).save(bankAccount);
+        verify(accountSummaryService).apply(uuid, LocalDate.of(2021, 10, 6), BigDecimal.ZERO, BigDecimal.TEN, 1L);
+        verify(bankAccountService, never()).save(bankAccount);
+
+    }
+
+    @Test
+    void testInsertMovementOnUnknownAccountExpectedNoResultException() throws Exception {
+        Movement movement = MovementMock.mock(true);
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+
+        when(ownershipResolver.accountOwner(uuid)).thenReturn(Optional.empty());
 
-        assertEquals(BigDecimal.ZERO, bankAccount.getBalance(), "Balance has to be 0.0");
+        assertThrows(NoResultException.class, () -> movementService.save(movement),
+                "Expected unknown account to be reported");
 
+        verify(bankAccountService, never()).findById(any());
+        verify(bankAccountService, never()).addBalance(any(UUID.class), any(BigDecimal.class));
+        verify(movementRepository, never()).save(movement);
+    }
+
+    @Test
+    void testInsertMovementWithLockConflictExpectedConflictCounted() throws Exception {
+        Movement movement = MovementMock.mock(true);
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+
+        doThrow(new CannotAcquireLockException("Lock timeout"))
+                .when(bankAccountService).addBalance(uuid, BigDecimal.TEN);
+
+        assertThrows(CannotAcquireLockException.class, () -> movementService.save(movement),
+                "Expected lock conflict to be propagated");
+
+        verify(movementRepository, never()).save(movement);
+        assertEquals(1.0, balanceConflicts("concurrency"), "Expected lock conflict to be counted");
+        assertEquals(0.0, balanceConflicts("insufficient-balance"), "Lock conflict cannot be counted as insufficient balance");
     }
 
     @Test
@@ -90,60 +152,123 @@ class MovementServiceTest {
         Movement movement = MovementMock.mock(false);
         UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-        when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
+        doThrow(new IllegalArgumentException("Value to subtract cannot be greater than balance"))
+                .when(bankAccountService).addBalance(uuid, BigDecimal.TEN.negate());
 
         assertThrows(IllegalArgumentException.class, () -> movementService.save(movement),
                 "Expected throws IllegalArgumentException");
 
-        verify(bankAccountService).findById(uuid);
+        verify(ownershipResolver).accountOwner(uuid);
+        verify(bankAccountService, never()).findById(any());
         verify(movementRepository, never()).save(movement);
+        verifyNoInteractions(accountSummaryService);
         verify(bankAccountService, never()).save(bankAccount);
+        assertEquals(1.0, balanceConflicts("insufficient-balance"), "Expected balance conflict to be counted");
 
     }
 
     @Test
-    void testDeleteInputMovementByIdExpectedSuccess() throws Exception {
-        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            Movement movement = MovementMock.mock(true);
-            BankAccount bankAccount = movement.getBankAccount();
-            bankAccount.addBalance(BigDecimal.valueOf(20.0));
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    void testSaveAllExpectedSingleBalanceUpdatePerAccount() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        BankAccount otherBankAccount = new BankAccount(UUID.randomUUID(), "Account 2");
+        List<Movement> movements = List.of(
+                movement(MovementType.INPUT, bankAccount, BigDecimal.TEN, 6),
+                movement(MovementType.INPUT, otherBankAccount, BigDecimal.ONE, 6),
+                movement(MovementType.OUTPUT, bankAccount, BigDecimal.ONE, 7));
+
+        List<MovementBatchResultDTO> results = movementService.saveAll(movements);
+
+        assertEquals(3, results.size(), "Every movement has to have a result");
+        assertEquals(List.of(0, 1, 2), results.stream().map(MovementBatchResultDTO::index).toList(),
+                "Results have to follow request order");
+        assertTrue(results.stream().allMatch(MovementBatchResultDTO::created), "Every movement has to be created");
+        verify(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.valueOf(9));
+        verify(bankAccountService).addBalance(otherBankAccount.getId(), BigDecimal.ONE);
+        verify(movementRepository).saveAll(List.of(movements.get(0), movements.get(2)));
+        verify(movementRepository).saveAll(List.of(movements.get(1)));
+        verify(accountSummaryService).apply(bankAccount.getId(), LocalDate.of(2021, 10, 6), BigDecimal.TEN, BigDecimal.ZERO, 1L);
+        verify(accountSummaryService).apply(bankAccount.getId(), LocalDate.of(2021, 10, 7), BigDecimal.ZERO, BigDecimal.ONE, 1L);
+        verify(accountSummaryService).apply(otherBankAccount.getId(), LocalDate.of(2021, 10, 6), BigDecimal.ONE, BigDecimal.ZERO, 1L);
+    }
 
-            when(movementRepository.findById(uuid)).thenReturn(Optional.of(movement));
-            when(bankAccountService.save(bankAccount)).thenReturn(bankAccount);
-            doNothing().when(movementRepository).delete(movement);
+    @Test
+    void testSaveAllWithInsufficientBalanceExpectedAccountMovementsRejected() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        BankAccount otherBankAccount = new BankAccount(UUID.randomUUID(), "Account 2");
+        List<Movement> movements = List.of(
+                movement(MovementType.OUTPUT, bankAccount, BigDecimal.TEN, 6),
+                movement(MovementType.INPUT, otherBankAccount, BigDecimal.ONE, 6));
+
+        doThrow(new IllegalArgumentException("Value to subtract cannot be greater than balance"))
+                .when(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.TEN.negate());
+
+        List<MovementBatchResultDTO> results = movementService.saveAll(movements);
+
+        assertFalse(results.get(0).created(), "Movement without balance cannot be created");
+        assertEquals("Value to subtract cannot be greater than balance", results.get(0).message(),
+                "Rejected movement has to carry the reason");
+        assertTrue(results.get(1).created(), "Movement of other account has to be created");
+        verify(movementRepository, never()).saveAll(List.of(movements.get(0)));
+        verify(movementRepository).saveAll(List.of(movements.get(1)));
+        verify(accountSummaryService, never()).apply(eq(bankAccount.getId()), any(), any(), any(), anyLong());
+    }
 
-            movementService.deleteMovementById(uuid);
+    @Test
+    void testSaveAllWithStorageFailureExpectedAccountMovementsRejected() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        BankAccount otherBankAccount = new BankAccount(UUID.randomUUID(), "Account 2");
+        List<Movement> movements = List.of(
+                movement(MovementType.INPUT, bankAccount, BigDecimal.TEN, 6),
+                movement(MovementType.INPUT, otherBankAccount, BigDecimal.ONE, 6));
+
+        doThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+                .when(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.TEN);
+        doThrow(new DataIntegrityViolationException("Unique index violation"))
+                .when(movementRepository).saveAll(List.of(movements.get(1)));
+
+        List<MovementBatchResultDTO> results = movementService.saveAll(movements);
+
+        assertEquals(2, results.size(), "Every movement has to have a result");
+        assertFalse(results.get(0).created(), "Movement of locked account cannot be created");
+        assertFalse(results.get(1).created(), "Movement violating a constraint cannot be created");
+        assertEquals("Movements could not be stored, retry them", results.get(0).message(),
+                "Rejected movement cannot expose the storage failure");
+        verify(movementRepository, never()).saveAll(List.of(movements.get(0)));
+    }
 
-            assertEquals(BigDecimal.valueOf(10.0), bankAccount.getBalance(), "Balance has to be 10.0");
+    @Test
+    void testSaveAllWithForbiddenAccountExpectedAccountMovementsRejected() throws Exception {
+        BankAccount bankAccount = BankAccountMock.mock();
+        List<Movement> movements = List.of(new Movement(MovementType.INPUT, BigDecimal.TEN, bankAccount));
 
-            verify(movementRepository).findById(uuid);
-            verify(bankAccountService).save(bankAccount);
-            verify(movementRepository).delete(movement);
-        }
+        when(ownershipResolver.canAccessAccount(bankAccount.getId())).thenReturn(false);
+
+        List<MovementBatchResultDTO> results = movementService.saveAll(movements);
 
+        assertFalse(results.get(0).created(), "Movement of forbidden account cannot be created");
+        verify(bankAccountService, never()).addBalance(any(UUID.class), any(BigDecimal.class));
+        verify(movementRepository, never()).saveAll(anyList());
     }
 
     @Test
-    void testDeleteMovementByIdExpectedAuthenticationFailException() throws Exception {
+    void testDeleteInputMovementByIdExpectedSuccess() throws Exception {
         try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
             Movement movement = MovementMock.mock(true);
             BankAccount bankAccount = movement.getBankAccount();
             bankAccount.addBalance(BigDecimal.valueOf(20.0));
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
             when(movementRepository.findById(uuid)).thenReturn(Optional.of(movement));
-            when(bankAccountService.save(bankAccount)).thenReturn(bankAccount);
             doNothing().when(movementRepository).delete(movement);
 
-            assertThrows(AuthenticationFailException.class, () -> movementService.deleteMovementById(uuid));
-
+            movementService.deleteMovementById(uuid);
 
             verify(movementRepository).findById(uuid);
+            verify(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.TEN.negate());
+            verify(accountSummaryService).apply(bankAccount.getId(), LocalDate.of(2021, 10, 6), BigDecimal.TEN.negate(), BigDecimal.ZERO, -1L);
             verify(bankAccountService, never()).save(bankAccount);
-            verify(movementRepository, never()).delete(movement);
+            verify(movementRepository).delete(movement);
         }
 
     }
@@ -159,15 +284,14 @@ class MovementServiceTest {
 
 
             when(movementRepository.findById(uuid)).thenReturn(Optional.of(movement));
-            when(bankAccountService.save(bankAccount)).thenReturn(bankAccount);
             doNothing().when(movementRepository).delete(movement);
 
             movementService.deleteMovementById(uuid);
 
-            assertEquals(BigDecimal.valueOf(30.0), bankAccount.getBalance(), "Balance has to be 30.0");
-
             verify(movementRepository).findById(uuid);
-            verify(bankAccountService).save(bankAccount);
+            verify(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.TEN);
+            verify(accountSummaryService).apply(bankAccount.getId(), LocalDate.of(2021, 10, 6), BigDecimal.ZERO, BigDecimal.TEN.negate(), -1L);
+            verify(bankAccountService, never()).save(bankAccount);
             verify(movementRepository).delete(movement);
         }
 
@@ -182,11 +306,11 @@ class MovementServiceTest {
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
             when(movementRepository.findById(uuid)).thenReturn(Optional.of(movement));
+            doThrow(new IllegalArgumentException("Value to subtract cannot be greater than balance"))
+                    .when(bankAccountService).addBalance(bankAccount.getId(), BigDecimal.TEN.negate());
 
             assertThrows(IllegalArgumentException.class, () -> movementService.deleteMovementById(uuid));
 
-            assertEquals(BigDecimal.ZERO, bankAccount.getBalance(), "Balance has to be 0.0");
-
             verify(movementRepository).findById(uuid);
             verify(bankAccountService, never()).save(bankAccount);
             verify(movementRepository, never()).delete(movement);
@@ -209,14 +333,13 @@ class MovementServiceTest {
     }
 
     @Test
-    void testFindByIdExpectedAuthenticationFailException() throws Exception {
+    void testFindByIdExpectedNoResultException() throws Exception {
         try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-            Movement movement = MovementMock.mock(false);
 
-            when(movementRepository.findById(uuid)).thenReturn(Optional.of(movement));
-            assertThrows(AuthenticationFailException.class, () -> movementService.findById(uuid));
+            when(movementRepository.findById(uuid)).thenReturn(Optional.empty());
+            assertThrows(NoResultException.class, () -> movementService.findById(uuid));
 
             verify(movementRepository).findById(uuid);
         }
@@ -224,117 +347,175 @@ class MovementServiceTest {
     }
 
     @Test
-    void testFindByIdExpectedNoResultException() throws Exception {
-        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    void testFindByPeriodExpectedSuccess() throws Exception{
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-            when(movementRepository.findById(uuid)).thenReturn(Optional.empty());
-            assertThrows(NoResultException.class, () -> movementService.findById(uuid));
+        final LocalDateTime start = LocalDateTime.MIN;
+        final LocalDateTime end = LocalDateTime.MAX;
+        List<MovementResponseDTO> movements = Collections.singletonList(MovementMock.mock(false).toMovementResponseDTO());
 
-            verify(movementRepository).findById(uuid);
-        }
+        when(movementRepository.findResponsesByPeriodAndBankAccount(start, end, uuid, PAGEABLE))
+                .thenReturn(new PageImpl<>(movements));
 
+        Page<MovementResponseDTO> movementReturn = movementService.findByPeriodAndBankAccount(start, end, uuid, PAGEABLE);
+
+        assertFalse(movementReturn.isEmpty(), "Movements cannot be empty");
+
+        verify(movementRepository).findResponsesByPeriodAndBankAccount(start, end, uuid, PAGEABLE);
+        verify(bankAccountService, never()).findById(uuid);
     }
 
     @Test
-    void testFindByIdUnexistentMovementExpectedAuthenticationFailException() throws Exception {
-        try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
-            UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+    void testFindByPeriodExpectedNoResultException() throws Exception{
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
 
-            when(movementRepository.findById(uuid)).thenReturn(Optional.empty());
-            assertThrows(AuthenticationFailException.class, () -> movementService.findById(uuid));
+        final LocalDateTime start = LocalDateTime.MIN;
+        final LocalDateTime end = LocalDateTime.MAX;
 
-            verify(movementRepository).findById(uuid);
-        }
+        when(movementRepository.findResponsesByPeriodAndBankAccount(start, end, uuid, PAGEABLE))
+                .thenReturn(Page.empty());
 
+        assertThrows(NoResultException.class, () -> movementService.findByPeriodAndBankAccount(start, end, uuid, PAGEABLE));
+
+        verify(movementRepository).findResponsesByPeriodAndBankAccount(start, end, uuid, PAGEABLE);
     }
 
     @Test
-    void testFindByPeriodExpectedSuccess() throws Exception{
+    void testFindByPeriodKeysetExpectedNextCursor() throws Exception {
         try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
             mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-            BankAccount bankAccount = BankAccountMock.mock();
-
             final LocalDateTime start = LocalDateTime.MIN;
             final LocalDateTime end = LocalDateTime.MAX;
-            List<Movement> movements = Collections.singletonList(MovementMock.mock(false));
+            final List<MovementResponseDTO> movements = List.of(movement(1).toMovementResponseDTO(),
+                    movement(2).toMovementResponseDTO(), movement(3).toMovementResponseDTO());
 
-            when(movementRepository
-                    .findByMovementDateBetweenAndBankAccount(start, end, bankAccount))
+            when(movementRepository.findKeysetPage(start, end, uuid, PageRequest.of(0, 3)))
                     .thenReturn(movements);
-            when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
-
-            List<Movement> movementReturn = movementService.findByPeriodAndBankAccount(start, end, uuid);
 
-            assertFalse(movementReturn.isEmpty(), "Movements cannot be empty");
+            MovementKeysetPageDTO page = movementService.findByPeriodAndBankAccount(start, end, uuid, null, 2);
 
-            verify(movementRepository).findByMovementDateBetweenAndBankAccount(start, end, bankAccount);
-            verify(bankAccountService).findById(uuid);
+            assertEquals(2, page.movements().size(), "Page cannot exceed requested size");
+            assertEquals(MovementCursorDTO.of(movements.get(1)), MovementCursorDTO.decode(page.nextCursor()),
+                    "Cursor has to point to the last returned movement");
         }
     }
 
     @Test
-    void testFindByPeriodExpectedNoResultException() throws Exception{
+    void testFindByPeriodKeysetAfterCursorExpectedLastPage() throws Exception {
         try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
             mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-            BankAccount bankAccount = BankAccountMock.mock();
-
             final LocalDateTime start = LocalDateTime.MIN;
             final LocalDateTime end = LocalDateTime.MAX;
+            final MovementResponseDTO movement = movement(3).toMovementResponseDTO();
+            final MovementCursorDTO cursor = MovementCursorDTO.of(movement(2).toMovementResponseDTO());
 
-            when(movementRepository
-                    .findByMovementDateBetweenAndBankAccount(start, end, bankAccount))
-                    .thenReturn(Collections.emptyList());
-            when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
+            when(movementRepository.findKeysetPageAfter(start, end, uuid, cursor.movementDate(), cursor.id(),
+                    PageRequest.of(0, 3))).thenReturn(List.of(movement));
 
-            assertThrows(NoResultException.class, () -> movementService.findByPeriodAndBankAccount(start, end, uuid));
+            MovementKeysetPageDTO page = movementService.findByPeriodAndBankAccount(start, end, uuid, cursor, 2);
 
-            verify(movementRepository).findByMovementDateBetweenAndBankAccount(start, end, bankAccount);
-            verify(bankAccountService).findById(uuid);
+            assertEquals(List.of(movement), page.movements(), "Page has to contain remaining movements");
+            assertNull(page.nextCursor(), "Last page cannot have next cursor");
+            verify(movementRepository, never()).findKeysetPage(any(), any(), any(), any());
         }
     }
 
     @Test
-    void testFindByPeriodExpectedAuthenticationFailException() throws Exception{
+    void testFindByPeriodKeysetExpectedNoResultException() throws Exception {
         try(MockedStatic<UserUtil> mockedUserUtil = Mockito.mockStatic(UserUtil.class)) {
-            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(false);
+            mockedUserUtil.when(() -> UserUtil.hasAuthority(any(ProfileRole.class))).thenReturn(true);
             UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-            BankAccount bankAccount = BankAccountMock.mock();
-
             final LocalDateTime start = LocalDateTime.MIN;
             final LocalDateTime end = LocalDateTime.MAX;
 
-            when(movementRepository
-                    .findByMovementDateBetweenAndBankAccount(start, end, bankAccount))
+            when(movementRepository.findKeysetPage(start, end, uuid, PageRequest.of(0, 3)))
                     .thenReturn(Collections.emptyList());
-            when(bankAccountService.findById(uuid)).thenReturn(bankAccount);
 
-            assertThrows(AuthenticationFailException.class, () -> movementService.findByPeriodAndBankAccount(start, end, uuid));
-
-            verify(movementRepository, never()).findByMovementDateBetweenAndBankAccount(start, end, bankAccount);
-            verify(bankAccountService).findById(uuid);
+            assertThrows(NoResultException.class,
+                    () -> movementService.findByPeriodAndBankAccount(start, end, uuid, null, 2));
         }
     }
 
+    @Test
+    void testTransferExpectedBalancesUpdatedInIdOrder() throws Exception {
+        final UUID lower = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        final UUID higher = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        final Field movementDateField = Movement.class.getDeclaredField("movementDate");
+        movementDateField.setAccessible(true);
+        when(movementRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            for (Object movement : invocation.<List<?>>getArgument(0))
+                movementDateField.set(movement, LocalDateTime.of(2021, 10, 6, 12, 0));
+            return invocation.getArgument(0);
+        });
+
+        final MovementTransferResponseDTO transfer = movementService.transfer(higher, lower, BigDecimal.TEN);
+
+        final InOrder inOrder = inOrder(bankAccountService);
+        inOrder.verify(bankAccountService).addBalance(lower, BigDecimal.TEN);
+        inOrder.verify(bankAccountService).addBalance(higher, BigDecimal.TEN.negate());
+        assertNotNull(transfer.transferId(), "Transfer has to have an id");
+        assertEquals(MovementType.OUTPUT, transfer.output().movementType(), "Source has to get an output");
+        assertEquals(MovementType.INPUT, transfer.input().movementType(), "Target has to get an input");
+        verify(movementRepository).saveAll(argThat((List<Movement> movements) -> movements.size() == 2
+                && movements.stream().allMatch(movement -> transfer.transferId().equals(movement.getTransferId()))));
+        verify(accountSummaryService).apply(higher, LocalDate.of(2021, 10, 6), BigDecimal.ZERO, BigDecimal.TEN, 1L);
+        verify(accountSummaryService).apply(lower, LocalDate.of(2021, 10, 6), BigDecimal.TEN, BigDecimal.ZERO, 1L);
+    }
 
     @Test
-    void testFindByPeriodWithNonexistentBankAccountExpectedNoResultException() throws Exception{
-        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
-        BankAccount bankAccount = BankAccountMock.mock();
+    void testTransferToSameAccountExpectedIllegalArgumentException() {
+        final UUID uuid = UUID.randomUUID();
 
-        final LocalDateTime start = LocalDateTime.MIN;
-        final LocalDateTime end = LocalDateTime.MAX;
+        assertThrows(IllegalArgumentException.class, () -> movementService.transfer(uuid, uuid, BigDecimal.TEN));
+        verifyNoInteractions(bankAccountService, movementRepository, accountSummaryService);
+    }
 
-        when(bankAccountService.findById(uuid)).thenThrow(new NoResultException("No account"));
+    @Test
+    void testTransferWithInsufficientBalanceExpectedIllegalArgumentException() {
+        final UUID source = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        final UUID target = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        doThrow(new IllegalArgumentException("Value to subtract cannot be greater than balance"))
+                .when(bankAccountService).addBalance(source, BigDecimal.TEN.negate());
+
+        assertThrows(IllegalArgumentException.class, () -> movementService.transfer(source, target, BigDecimal.TEN));
+
+        verify(ownershipResolver).accountOwner(source);
+        verify(bankAccountService, never()).addBalance(eq(target), any());
+        verifyNoInteractions(movementRepository, accountSummaryService);
+        assertEquals(1.0, balanceConflicts("insufficient-balance"), "Expected balance conflict to be counted");
+    }
 
-        assertThrows(NoResultException.class, () -> movementService.findByPeriodAndBankAccount(start, end, uuid));
+    @Test
+    void testTransferToUnknownAccountExpectedNoResultException() {
+        final UUID source = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        final UUID target = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        doThrow(new IllegalArgumentException("Value to subtract cannot be greater than balance"))
+                .when(bankAccountService).addBalance(target, BigDecimal.TEN);
+        when(ownershipResolver.accountOwner(target)).thenReturn(Optional.empty());
+
+        assertThrows(NoResultException.class, () -> movementService.transfer(source, target, BigDecimal.TEN));
+        verifyNoInteractions(movementRepository, accountSummaryService);
+    }
+
+    private Movement movement(int day) throws Exception {
+        return movement(MovementType.INPUT, BankAccountMock.mock(), BigDecimal.TEN, day);
+    }
 
-        verify(movementRepository, never()).findByMovementDateBetweenAndBankAccount(start, end, bankAccount);
-        verify(bankAccountService).findById(uuid);
+    private Movement movement(MovementType movementType, BankAccount bankAccount, BigDecimal value, int day) throws Exception {
+        final Movement movement = new Movement(movementType, value, bankAccount);
+        final Field idField = Movement.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(movement, UUID.randomUUID());
+        final Field movementDateField = Movement.class.getDeclaredField("movementDate");
+        movementDateField.setAccessible(true);
+        movementDateField.set(movement, LocalDateTime.of(2021, 10, day, 12, 0));
+        return movement;
     }
 
+
+    private double balanceConflicts(String reason) {
+        return meterRegistry.get("movement.balance.conflicts").tag("reason", reason).counter().count();
+    }
 }
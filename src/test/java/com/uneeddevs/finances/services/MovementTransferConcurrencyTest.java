@@ -0,0 +1,164 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.AccountDailySummaryRepository;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.service.impl.AccountSummaryServiceImpl;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import com.uneeddevs.finances.service.impl.MovementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MovementServiceImpl.class, MovementWriter.class, BankAccountServiceImpl.class, AccountSummaryServiceImpl.class, OwnershipResolver.class,
+        SimpleMeterRegistry.class})
+class MovementTransferConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 25;
+
+    @MockBean
+    private UserService userService;
+    @Autowired
+    private MovementService movementService;
+    @Autowired
+    private MovementRepository movementRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private BankAccount first;
+    private BankAccount second;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(new User("name", "transfer@mail.com", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountDailySummaryRepository.deleteAll();
+        movementRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testOppositeConcurrentTransfersExpectedNoDeadlockAndBalancesKept() throws Exception {
+        final int available = THREADS * TRANSFERS_PER_THREAD / 2;
+        first = bankAccountRepository.save(new BankAccount(new BigDecimal(available), "Account 1", user));
+        second = bankAccountRepository.save(new BankAccount(new BigDecimal(available), "Account 2", user));
+
+        final List<Boolean> results = transferConcurrently(true);
+
+        final int transfers = THREADS * TRANSFERS_PER_THREAD;
+        assertEquals(transfers, results.stream().filter(Boolean::booleanValue).count(),
+                "Every transfer has to be accepted");
+        assertEquals(0, new BigDecimal(available).compareTo(balance(first)), "Opposite transfers have to cancel out");
+        assertEquals(0, new BigDecimal(available).compareTo(balance(second)), "Opposite transfers have to cancel out");
+        assertTransfersLinked(transfers);
+    }
+
+    @Test
+    void testConcurrentTransfersExpectedSourceNeverNegative() throws Exception {
+        final int available = THREADS * TRANSFERS_PER_THREAD / 4;
+        first = bankAccountRepository.save(new BankAccount(new BigDecimal(available), "Account 1", user));
+        second = bankAccountRepository.save(new BankAccount(BigDecimal.ZERO, "Account 2", user));
+
+        final List<Boolean> results = transferConcurrently(false);
+
+        assertEquals(available, results.stream().filter(Boolean::booleanValue).count(),
+                "Only transfers covered by the balance can be accepted");
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance(first)), "Source balance has to be fully consumed");
+        assertEquals(0, new BigDecimal(available).compareTo(balance(second)), "Target has to receive every accepted transfer");
+        assertTransfersLinked(available);
+    }
+
+    private List<Boolean> transferConcurrently(boolean bothDirections) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS * TRANSFERS_PER_THREAD; i++) {
+                final boolean reverse = bothDirections && i % 2 == 1;
+                final UUID source = reverse ? second.getId() : first.getId();
+                final UUID target = reverse ? first.getId() : second.getId();
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+                    try {
+                        movementService.transfer(source, target, BigDecimal.ONE);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+            final List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures)
+                results.add(future.get(60, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void assertTransfersLinked(long transfers) {
+        final Map<UUID, List<Movement>> movementsByTransfer = movementRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Movement::getTransferId));
+        assertEquals(transfers, movementsByTransfer.size(), "Every accepted transfer has to be persisted once");
+        assertTrue(movementsByTransfer.values().stream().allMatch(movements -> movements.size() == 2
+                        && !movements.get(0).getBankAccountId().equals(movements.get(1).getBankAccountId())),
+                "Every transfer has to link one movement on each account");
+    }
+
+    private BigDecimal balance(BankAccount bankAccount) {
+        return bankAccountRepository.findById(bankAccount.getId()).orElseThrow().getBalance();
+    }
+}
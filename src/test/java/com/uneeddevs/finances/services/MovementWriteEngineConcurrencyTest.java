@@ -0,0 +1,7 @@
+package com.uneeddevs.finances.services;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {"movement.write-engine.shards=2", "movement.write-engine.max-batch-size=16"})
+class MovementWriteEngineConcurrencyTest extends MovementServiceConcurrencyTest {
+}
@@ -0,0 +1,212 @@
+package com.uneeddevs.finances.services;
+
+import com.uneeddevs.finances.dto.BankAccountResponseDTO;
+import com.uneeddevs.finances.dto.MovementResponseDTO;
+import com.uneeddevs.finances.dto.UserCursorDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
+import com.uneeddevs.finances.dto.UserResponseDTO;
+import com.uneeddevs.finances.enums.MovementType;
+import com.uneeddevs.finances.mocks.ProfileMock;
+import com.uneeddevs.finances.model.BankAccount;
+import com.uneeddevs.finances.model.Movement;
+import com.uneeddevs.finances.model.User;
+import com.uneeddevs.finances.repository.BankAccountRepository;
+import com.uneeddevs.finances.repository.MovementRepository;
+import com.uneeddevs.finances.repository.ProfileRepository;
+import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.security.OwnershipResolver;
+import com.uneeddevs.finances.security.PrincipalCache;
+import com.uneeddevs.finances.security.TokenRevocationList;
+import com.uneeddevs.finances.service.BankAccountService;
+import com.uneeddevs.finances.service.MovementService;
+import com.uneeddevs.finances.service.ProfileService;
+import com.uneeddevs.finances.service.UserService;
+import com.uneeddevs.finances.service.engine.MovementWriter;
+import com.uneeddevs.finances.service.impl.AccountSummaryServiceImpl;
+import com.uneeddevs.finances.service.impl.BankAccountServiceImpl;
+import com.uneeddevs.finances.service.impl.MovementServiceImpl;
+import com.uneeddevs.finances.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, BankAccountServiceImpl.class, MovementServiceImpl.class, MovementWriter.class, AccountSummaryServiceImpl.class,
+        OwnershipResolver.class, SimpleMeterRegistry.class})
+class ProjectionReadPathTest {
+
+    @MockBean
+    private ProfileService profileService;
+    @MockBean
+    private PrincipalCache principalCache;
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BankAccountService bankAccountService;
+    @Autowired
+    private MovementService movementService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProfileRepository profileRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private MovementRepository movementRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User admin;
+    private BankAccount bankAccount;
+
+    @BeforeEach
+    void setup() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final User user = new User("admin", "projection-admin@mail.com", "password");
+        user.addProfile(ProfileMock.mock());
+        admin = userRepository.save(user);
+        userRepository.save(new User("user", "projection-user@mail.com", "password"));
+        bankAccount = bankAccountRepository.save(new BankAccount(BigDecimal.TEN, "Account 1", admin));
+        bankAccountRepository.save(new BankAccount(BigDecimal.ONE, "Account 2", admin));
+        for (int i = 0; i < 3; i++)
+            movementRepository.save(new Movement(MovementType.INPUT, BigDecimal.valueOf(i + 1L), bankAccount));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(admin, null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        movementRepository.deleteAll();
+        bankAccountRepository.deleteAll();
+        userRepository.deleteAll();
+        profileRepository.deleteAll();
+    }
+
+    @Test
+    void testMovementSearchExpectedPageAndCountStatementsOnly() {
+        statistics.clear();
+
+        final Page<MovementResponseDTO> page = movementService.findByPeriodAndBankAccount(LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), bankAccount.getId(), PageRequest.of(0, 2, Sort.by("movementDate", "id")));
+
+        assertEquals(2, page.getNumberOfElements(), "Expected a full page");
+        assertEquals(3L, page.getTotalElements(), "Expected every movement counted");
+        assertEquals(2L, statistics.getPrepareStatementCount(), "Expected only the page and count statements");
+        assertEquals(0L, statistics.getEntityLoadCount(), "Movement search cannot hydrate entities");
+    }
+
+    @Test
+    void testBankAccountSearchExpectedSingleStatement() {
+        statistics.clear();
+
+        final List<BankAccountResponseDTO> bankAccounts = bankAccountService.findByUser(admin.getId());
+
+        assertEquals(2, bankAccounts.size(), "Expected every account of the user");
+        assertEquals(1L, statistics.getPrepareStatementCount(), "Expected a single statement");
+        assertEquals(0L, statistics.getEntityLoadCount(), "Bank account search cannot hydrate entities");
+    }
+
+    @Test
+    void testBankAccountSearchExpectedCachedUntilBalanceChange() {
+        bankAccountService.findByUser(admin.getId());
+        statistics.clear();
+
+        assertEquals(2, bankAccountService.findByUser(admin.getId()).size(), "Expected every account of the user");
+        assertEquals(0L, statistics.getPrepareStatementCount(), "Cached accounts cannot hit the database");
+
+        movementService.save(new Movement(MovementType.INPUT, BigDecimal.ONE, bankAccount));
+        statistics.clear();
+
+        final BankAccountResponseDTO account = bankAccountService.findByUser(admin.getId()).stream()
+                .filter(response -> response.id().equals(bankAccount.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("11").compareTo(account.balance()), "Balance change has to evict the accounts");
+        assertEquals(1L, statistics.getPrepareStatementCount(), "Evicted accounts have to be reloaded once");
+    }
+
+    @Test
+    void testVersionLookupsExpectedSingleStatementAndBumpedOnChange() {
+        statistics.clear();
+
+        final long version = movementService.findVersion(bankAccount.getId());
+        userService.findUpdateDate(admin.getId());
+
+        assertEquals(2L, statistics.getPrepareStatementCount(), "Expected a single statement per lookup");
+        assertEquals(0L, statistics.getEntityLoadCount(), "Version lookups cannot hydrate entities");
+
+        movementService.save(new Movement(MovementType.INPUT, BigDecimal.ONE, bankAccount));
+        final long movedVersion = bankAccountService.findVersion(bankAccount.getId());
+        assertTrue(movedVersion > version, "Movement has to bump the account version");
+
+        bankAccountService.update(new BankAccount(bankAccount.getId(), "Renamed"));
+        assertTrue(bankAccountService.findVersion(bankAccount.getId()) > movedVersion, "Rename has to bump the account version");
+    }
+
+    @Test
+    void testUserPageExpectedPageAndRolesStatementsOnly() {
+        statistics.clear();
+
+        final Page<UserResponseDTO> page = userService.findPage(PageRequest.of(0, 10, Sort.by("email")));
+
+        assertEquals(2, page.getNumberOfElements(), "Expected every user");
+        assertEquals(Set.of("ROLE_ADMIN"), page.getContent().get(0).getProfiles(), "Expected admin profiles");
+        assertEquals(Set.of(), page.getContent().get(1).getProfiles(), "Expected no user profiles");
+        assertEquals(2L, statistics.getPrepareStatementCount(), "Expected only the page and profiles statements");
+        assertEquals(0L, statistics.getEntityLoadCount(), "User page cannot hydrate entities");
+    }
+
+    @Test
+    void testUserKeysetPageExpectedNoCountStatement() {
+        statistics.clear();
+
+        final UserKeysetPageDTO first = userService.findKeysetPage(null, 1);
+
+        assertEquals(1, first.users().size(), "Expected a single user");
+        assertEquals(2L, statistics.getPrepareStatementCount(), "Expected only the page and profiles statements");
+        assertEquals(0L, statistics.getEntityLoadCount(), "User keyset page cannot hydrate entities");
+
+        statistics.clear();
+        final UserKeysetPageDTO second = userService.findKeysetPage(UserCursorDTO.decode(first.nextCursor()), 1);
+
+        assertEquals(1, second.users().size(), "Expected the remaining user");
+        assertNotEquals(first.users().get(0).getId(), second.users().get(0).getId(), "Pages cannot overlap");
+        assertNull(second.nextCursor(), "Last page cannot have a next cursor");
+        assertEquals(2L, statistics.getPrepareStatementCount(), "Expected only the page and profiles statements");
+    }
+}
@@ -1,10 +1,16 @@
 package com.uneeddevs.finances.services;
 
+import com.uneeddevs.finances.dto.UserCursorDTO;
+import com.uneeddevs.finances.dto.UserKeysetPageDTO;
+import com.uneeddevs.finances.dto.UserResponseDTO;
 import com.uneeddevs.finances.enums.ProfileRole;
 import com.uneeddevs.finances.mocks.ProfileMock;
 import com.uneeddevs.finances.mocks.UserMock;
 import com.uneeddevs.finances.model.User;
 import com.uneeddevs.finances.repository.UserRepository;
+import com.uneeddevs.finances.repository.projection.UserRoleProjection;
+import com.uneeddevs.finances.security.PrincipalCache;
+import com.uneeddevs.finances.security.TokenRevocationList;
 import com.uneeddevs.finances.security.exception.AuthenticationFailException;
 import com.uneeddevs.finances.service.ProfileService;
 import com.uneeddevs.finances.service.UserService;
@@ -17,13 +23,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,12 +44,18 @@ class UserServiceTest {
     private UserService userService;
     private UserRepository userRepository;
     private ProfileService profileService;
+    private PrincipalCache principalCache;
+    private TokenRevocationList tokenRevocationList;
+    private PasswordEncoder passwordEncoder;
 
     @BeforeEach
     void setup(){
         userRepository = mock(UserRepository.class);
         profileService = mock(ProfileService.class);
-        userService = new UserServiceImpl(userRepository, profileService);
+        principalCache = mock(PrincipalCache.class);
+        tokenRevocationList = mock(TokenRevocationList.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        userService = new UserServiceImpl(userRepository, profileService, principalCache, tokenRevocationList, passwordEncoder);
     }
 
     @Test
@@ -158,12 +174,24 @@ class UserServiceTest {
             verify(userRepository, never()).findById(uuid);
     }
 
+    @Test
+    void testFindUpdateDateExpectedAuthenticationFailException() {
+        UUID uuid = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+
+        assertThrows(AuthenticationFailException.class,
+                () -> userService.findUpdateDate(uuid),
+                "Expected AuthenticationFailException");
+        verify(userRepository, never()).findUpdateDateById(uuid);
+    }
+
     @Test
     void insertUserExpectedSuccess() throws Exception {
         User user = new User("name", "email@mail.com", "password");
         when(userRepository.save(user)).thenReturn(user);
         when(profileService.findById(anyLong())).thenReturn(ProfileMock.mock());
+        when(passwordEncoder.encode("password")).thenReturn("encoded");
         userService.insert(user);
+        assertEquals("encoded", user.getPassword(), "Password has to be stored encoded");
         verify(userRepository).save(user);
         verify(profileService).findById(anyLong());
     }
@@ -184,27 +212,69 @@ class UserServiceTest {
     @Test
     void testUserPageExpectedSuccess() {
         Pageable pageable = PageRequest.of(0, 20);
-        User user = new User("name", "email@mail.com", "password");
-        List<User> users = new ArrayList<>();
-        users.add(user);
-        Page<User> page = new PageImpl<>(users);
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(page);
-        Page<User> userResponse = userService.findPage(pageable);
+        UUID id = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+        UserResponseDTO user = new UserResponseDTO(id, "name", "email@mail.com", LocalDateTime.now());
+        Page<UserResponseDTO> page = new PageImpl<>(List.of(user));
+        UserRoleProjection role = mock(UserRoleProjection.class);
+        when(role.getUserId()).thenReturn(id);
+        when(role.getRoleName()).thenReturn("ROLE_ADMIN");
+        when(userRepository.findResponses(any(Pageable.class))).thenReturn(page);
+        when(userRepository.findRolesByUserIds(Set.of(id))).thenReturn(List.of(role));
+        Page<UserResponseDTO> userResponse = userService.findPage(pageable);
         assertFalse(userResponse.isEmpty(), "User response cannot be empty");
-        verify(userRepository).findAll(pageable);
+        assertEquals(Set.of("ROLE_ADMIN"), userResponse.getContent().get(0).getProfiles(), "Expected user profiles");
+        verify(userRepository).findResponses(pageable);
+        verify(userRepository, never()).findAll(any(Pageable.class));
     }
 
     @Test
     void testUserPageExpectedEmptyReturn() {
         Pageable pageable = PageRequest.of(0, 20);
-        List<User> users = new ArrayList<>();
-        Page<User> page = new PageImpl<>(users);
-        when(userRepository.findAll(pageable)).thenReturn(page);
+        Page<UserResponseDTO> page = new PageImpl<>(new ArrayList<>());
+        when(userRepository.findResponses(pageable)).thenReturn(page);
         NoResultException noResultException = assertThrows(NoResultException.class,
                 () -> userService.findPage(pageable),
                 "Expected NoResultException");
         assertEquals(noResultException.getMessage(), "No users in page: " + pageable);
-        verify(userRepository).findAll(pageable);
+        verify(userRepository).findResponses(pageable);
+    }
+
+    @Test
+    void testUserKeysetPageExpectedNextCursor() {
+        LocalDateTime registerDate = LocalDateTime.of(2021, 9, 20, 15, 18);
+        UserResponseDTO first = new UserResponseDTO(UUID.randomUUID(), "first", "first@mail.com", registerDate);
+        UserResponseDTO second = new UserResponseDTO(UUID.randomUUID(), "second", "second@mail.com", registerDate);
+        when(userRepository.findKeysetPage(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        UserKeysetPageDTO page = userService.findKeysetPage(null, 1);
+        assertEquals(List.of(first), page.users(), "Expected only the requested size");
+        assertEquals(UserCursorDTO.of(first), UserCursorDTO.decode(page.nextCursor()), "Expected cursor of the last user");
+        verify(userRepository).findRolesByUserIds(Set.of(first.getId()));
+        verify(userRepository, never()).findResponses(any(Pageable.class));
+    }
+
+    @Test
+    void testUserKeysetPageAfterCursorExpectedLastPage() {
+        UserCursorDTO cursor = new UserCursorDTO(LocalDateTime.of(2021, 9, 20, 15, 18), UUID.randomUUID());
+        UserResponseDTO user = new UserResponseDTO(UUID.randomUUID(), "name", "email@mail.com", LocalDateTime.now());
+        when(userRepository.findKeysetPageAfter(cursor.registerDate(), cursor.id(), PageRequest.of(0, 2))).thenReturn(List.of(user));
+        UserKeysetPageDTO page = userService.findKeysetPage(cursor, 1);
+        assertEquals(List.of(user), page.users(), "Expected users after cursor");
+        assertNull(page.nextCursor(), "Last page cannot have a next cursor");
+    }
+
+    @Test
+    void testUserKeysetPageAfterCursorExpectedEmptyPage() {
+        UserCursorDTO cursor = new UserCursorDTO(LocalDateTime.of(2021, 9, 20, 15, 18), UUID.randomUUID());
+        when(userRepository.findKeysetPageAfter(any(), any(), any())).thenReturn(List.of());
+        UserKeysetPageDTO page = userService.findKeysetPage(cursor, 10);
+        assertTrue(page.users().isEmpty(), "Expected no users after the last cursor");
+        verify(userRepository, never()).findRolesByUserIds(any());
+    }
+
+    @Test
+    void testUserKeysetPageExpectedNoResultException() {
+        when(userRepository.findKeysetPage(any(Pageable.class))).thenReturn(List.of());
+        assertThrows(NoResultException.class, () -> userService.findKeysetPage(null, 10), "Expected NoResultException");
     }
 
     @Test
@@ -216,11 +286,15 @@ class UserServiceTest {
 
             when(userRepository.findById(any())).thenReturn(Optional.of(user));
             when(userRepository.save(user)).thenReturn(user);
+            when(passwordEncoder.encode("secret123")).thenReturn("encoded");
 
             userService.update(userUpdated);
 
+            assertEquals("encoded", user.getPassword(), "Updated password has to be stored encoded");
             verify(userRepository).findById(any());
             verify(userRepository).save(user);
+            verify(principalCache).invalidate("email@mail.com");
+            verify(tokenRevocationList).revokeUser("email@mail.com");
         }
     }
 
@@ -236,6 +310,8 @@ class UserServiceTest {
 
         verify(userRepository, never()).findById(any());
         verify(userRepository, never()).save(user);
+        verify(principalCache, never()).invalidate(anyString());
+        verify(tokenRevocationList, never()).revokeUser(anyString());
     }
 
     @Test
@@ -246,4 +322,19 @@ class UserServiceTest {
 
         verify(profileService).findById(anyLong());
     }
+
+    @Test
+    void testUpdatePasswordExpectedRehashedPasswordStored() {
+        User user = new User("name", "email@mail.com", "password");
+        when(userRepository.findByEmail("email@mail.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        UserDetails updatedUser = userService.updatePassword(user, "rehashed");
+
+        assertEquals("rehashed", updatedUser.getPassword(), "Rehashed password has to be stored");
+        verify(userRepository).save(user);
+        verify(principalCache).invalidate("email@mail.com");
+        verify(tokenRevocationList, never()).revokeUser(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
 }